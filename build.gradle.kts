@@ -1,6 +1,8 @@
 plugins {
     id("java")
     id("war")
+    // Бенчмарки: src/jmh/java, запуск ./gradlew jmh
+    id("me.champeau.jmh") version "0.7.1"
 }
 
 group = "org.example"
@@ -72,6 +74,8 @@ dependencies {
     // --- Tests ---
     testImplementation(platform("org.junit:junit-bom:5.9.1"))
     testImplementation("org.junit.jupiter:junit-jupiter")
+    // Общая БД узлов в ClusterCacheCoordinatorTest
+    testImplementation("com.h2database:h2:2.2.224")
 
     // --- ЛР3: MinIO & Infinispan ---
     implementation("io.minio:minio:8.5.7") {
@@ -79,10 +83,78 @@ dependencies {
         exclude(group = "com.fasterxml.jackson.core")
     }
     implementation("org.infinispan:infinispan-core:14.0.0.Final")
+
+    // --- Метрики (Prometheus, /api/metrics) ---
+    implementation("io.micrometer:micrometer-registry-prometheus:1.11.5")
+
+    // --- Benchmarks (src/jmh) ---
+    // Встроенная БД для RepositoryBenchmark
+    jmh("com.h2database:h2:2.2.224")
 }
 
 tasks.test {
     useJUnitPlatform()
+    // БД для проверки планов запросов (OrganizationQueryPlanTest): ./gradlew test -Dorganization.test.jdbc-url=...
+    listOf("organization.test.jdbc-url", "organization.test.jdbc-user", "organization.test.jdbc-password").forEach { key ->
+        System.getProperty(key)?.let { systemProperty(key, it) }
+    }
+}
+
+jmh {
+    jmhVersion.set("1.36")
+    // gc-профайлер показывает аллокации на операцию (gc.alloc.rate.norm)
+    profilers.set(listOf("gc"))
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("reports/jmh/results.json"))
+}
+
+// Baseline результатов JMH для сравнения между коммитами:
+//   ./gradlew jmh jmhSaveBaseline   — запомнить текущие результаты (src/jmh/baseline.json)
+//   ./gradlew jmh jmhCompare        — сравнить с baseline, -PjmhMaxRegression=10 (в процентах) роняет сборку
+val jmhResults = layout.buildDirectory.file("reports/jmh/results.json")
+val jmhBaseline = file("src/jmh/baseline.json")
+
+tasks.register<Copy>("jmhSaveBaseline") {
+    group = "benchmark"
+    from(jmhResults)
+    into(jmhBaseline.parentFile)
+    rename { jmhBaseline.name }
+}
+
+tasks.register("jmhCompare") {
+    group = "benchmark"
+    doLast {
+        val results = jmhResults.get().asFile
+        if (!results.exists()) throw GradleException("No JMH results, run ./gradlew jmh first")
+        if (!jmhBaseline.exists()) throw GradleException("No baseline, run ./gradlew jmh jmhSaveBaseline first")
+
+        @Suppress("UNCHECKED_CAST")
+        fun load(f: File): Map<String, Map<String, Any>> =
+                (groovy.json.JsonSlurper().parse(f) as List<Map<String, Any>>).associateBy { run ->
+                    val params = (run["params"] as Map<*, *>?)?.entries?.joinToString(",") { "${it.key}=${it.value}" }
+                    run["benchmark"].toString() + (if (params.isNullOrEmpty()) "" else " [$params]")
+                }
+
+        val maxRegression = (findProperty("jmhMaxRegression") as String?)?.toDouble()
+        val baseline = load(jmhBaseline)
+        val regressions = mutableListOf<String>()
+        for ((name, run) in load(results)) {
+            val old = baseline[name] ?: continue
+            val metric = run["primaryMetric"] as Map<*, *>
+            val score = (metric["score"] as Number).toDouble()
+            val oldScore = ((old["primaryMetric"] as Map<*, *>)["score"] as Number).toDouble()
+            // Для thrpt больше — лучше, для avgt/sample — меньше
+            val higherIsBetter = run["mode"] == "thrpt"
+            val change = (score - oldScore) / oldScore * 100
+            val regression = if (higherIsBetter) -change else change
+            println(String.format("%-90s %12.3f -> %12.3f %s  %+7.1f%%",
+                    name, oldScore, score, metric["scoreUnit"], change))
+            if (maxRegression != null && regression > maxRegression) regressions.add(name)
+        }
+        if (regressions.isNotEmpty()) {
+            throw GradleException("JMH regressions over $maxRegression%: $regressions")
+        }
+    }
 }
 
 tasks.war {
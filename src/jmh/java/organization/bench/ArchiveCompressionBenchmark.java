@@ -0,0 +1,65 @@
+package organization.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import organization.entity.ArchiveCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сжатие файла импорта перед загрузкой в MinIO: CPU против байт по уровням gzip.
+ * Одна операция — 10 000 строк CSV (около 1,3 МБ). Время — в результатах JMH, размер после сжатия
+ * печатается в setUp каждого форка: "level=N raw=... packed=... ratio=...".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ArchiveCompressionBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    @Param({"1", "3", "6", "9"})
+    public int level;
+
+    private byte[] raw;
+    private byte[] packed;
+
+    @Setup
+    public void setUp() throws IOException {
+        raw = BenchmarkData.csv(ROWS).getBytes(StandardCharsets.UTF_8);
+        packed = compress();
+        System.out.printf("level=%d raw=%d packed=%d ratio=%.2f%n",
+                level, raw.length, packed.length, (double) raw.length / packed.length);
+    }
+
+    // Стоимость загрузки: сжатие перед отправкой
+    @Benchmark
+    public byte[] compress() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(raw.length / 4);
+        try (OutputStream out = ArchiveCodec.GZIP.encode(buffer, level)) {
+            out.write(raw);
+        }
+        return buffer.toByteArray();
+    }
+
+    // Стоимость продолжения импорта и скачивания: распаковка при чтении из MinIO
+    @Benchmark
+    public void decompress(Blackhole bh) throws IOException {
+        try (InputStream in = ArchiveCodec.GZIP.decode(new ByteArrayInputStream(packed))) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                bh.consume(read);
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package organization.bench;
+
+import organization.dto.CsvImportModel;
+import organization.entity.Organization;
+import organization.entity.OrganizationType;
+import organization.mapper.OrganizationMapper;
+
+import java.time.ZonedDateTime;
+
+// Общие тестовые данные бенчмарков: такие же строки, как в типичном файле импорта
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static CsvImportModel csvModel(int i) {
+        CsvImportModel model = new CsvImportModel();
+        model.setName("Org " + i);
+        model.setFullName("Organization, Inc. " + i);
+        model.setType(OrganizationType.values()[i % OrganizationType.values().length]);
+        model.setAnnualTurnover(1000 + i * 0.25);
+        model.setEmployeesCount(10 + i % 500);
+        model.setRating(1.5f + i % 10);
+        model.setX(i * 0.1);
+        model.setY(i % 400);
+        model.setOfficialStreet("Main street " + i);
+        model.setOfficialZipCode(String.valueOf(100000 + i));
+        model.setPostalStreet("Postal street " + i);
+        model.setPostalZipCode(String.valueOf(200000 + i));
+        return model;
+    }
+
+    // Файл импорта с заголовком: те же значения, что в csvModel
+    static String csv(int rows) {
+        StringBuilder csv = new StringBuilder(String.join(",", CsvImportModel.COLUMNS)).append('\n');
+        OrganizationType[] types = OrganizationType.values();
+        for (int i = 0; i < rows; i++) {
+            csv.append("Org ").append(i).append(',')
+                    .append("\"Organization, Inc. ").append(i).append("\",")
+                    .append(types[i % types.length]).append(',')
+                    .append(1000 + i * 0.25).append(',')
+                    .append(10 + i % 500).append(',')
+                    .append(1.5f + i % 10).append(',')
+                    .append(i * 0.1).append(',')
+                    .append(i % 400).append(',')
+                    .append("Main street ").append(i).append(',')
+                    .append(100000 + i).append(',')
+                    .append("Postal street ").append(i).append(',')
+                    .append(200000 + i).append('\n');
+        }
+        return csv.toString();
+    }
+
+    // Организация как после чтения из БД: с ID и датой создания
+    static Organization organization(int i) {
+        Organization organization = OrganizationMapper.toOrganization(csvModel(i));
+        organization.setId((long) i + 1);
+        organization.setCreationDate(ZonedDateTime.now());
+        organization.getCoordinates().setId((long) i + 1);
+        organization.getOfficialAddress().setId((long) i * 2 + 1);
+        organization.getPostalAddress().setId((long) i * 2 + 2);
+        return organization;
+    }
+}
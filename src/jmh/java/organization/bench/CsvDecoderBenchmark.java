@@ -0,0 +1,73 @@
+package organization.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import organization.csv.CsvModelDecoder;
+import organization.csv.CsvRecordReader;
+import organization.dto.CsvImportModel;
+import organization.entity.ImportDecoder;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение декодеров CSV импорта: OpenCSV (рефлексия по @CsvBindByName) и ручной FAST.
+ * Одна операция — разбор 10 000 записей; аллокации смотреть в gc.alloc.rate.norm.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CsvDecoderBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    @Param({"OPENCSV", "FAST"})
+    public ImportDecoder decoder;
+
+    private String header;
+    private List<String> records;
+    private CsvModelDecoder modelDecoder;
+
+    @Setup
+    public void setUp() throws IOException {
+        header = String.join(",", CsvImportModel.COLUMNS);
+        String csv = BenchmarkData.csv(ROWS);
+
+        // Деление на записи одинаково для обоих декодеров, поэтому меряем только decode
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(csv));
+        reader.next();
+        records = new ArrayList<>(ROWS);
+        String record;
+        while ((record = reader.next()) != null) {
+            records.add(record);
+        }
+
+        modelDecoder = CsvModelDecoder.create(decoder);
+        modelDecoder.readHeader(header);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void decode(Blackhole bh) {
+        for (String record : records) {
+            bh.consume(modelDecoder.decode(record));
+        }
+    }
+
+    // Разбивка потока на записи (стадия читателя в CsvImportPipeline)
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void splitRecords(Blackhole bh) throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(String.join("\n", records)));
+        String record;
+        while ((record = reader.next()) != null) {
+            bh.consume(record);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package organization.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import organization.config.ObjectMapperProvider;
+import organization.dto.OrganizationResponseDTO;
+import organization.dto.PageResponseDTO;
+import organization.mapper.OrganizationMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация ответов REST тем же ObjectMapper, что и в JAX-RS (ObjectMapperProvider):
+ * одна организация и страница списка.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    @Param({"50", "1000"})
+    public int pageSize;
+
+    private ObjectWriter writer;
+    private OrganizationResponseDTO single;
+    private PageResponseDTO<OrganizationResponseDTO> page;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = ObjectMapperProvider.createObjectMapper();
+        writer = mapper.writer();
+
+        List<OrganizationResponseDTO> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            content.add(OrganizationMapper.toOrganizationResponseDTO(BenchmarkData.organization(i)));
+        }
+        single = content.get(0);
+        page = new PageResponseDTO<>(content, 0, pageSize, 100_000);
+    }
+
+    @Benchmark
+    public byte[] writeOrganization() throws JsonProcessingException {
+        return writer.writeValueAsBytes(single);
+    }
+
+    @Benchmark
+    public byte[] writePage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,46 @@
+package organization.bench;
+
+import org.openjdk.jmh.annotations.*;
+import organization.dto.CsvImportModel;
+import organization.dto.OrganizationResponseDTO;
+import organization.entity.Organization;
+import organization.mapper.OrganizationMapper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость маппинга на одну организацию: CSV -> сущность (импорт) и сущность -> DTO (REST, список).
+ * Аллокации на операцию — gc.alloc.rate.norm.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private CsvImportModel model;
+    private Organization organization;
+
+    @Setup
+    public void setUp() {
+        model = BenchmarkData.csvModel(42);
+        organization = BenchmarkData.organization(42);
+    }
+
+    @Benchmark
+    public Organization toOrganization() {
+        return OrganizationMapper.toOrganization(model);
+    }
+
+    @Benchmark
+    public OrganizationResponseDTO toOrganizationResponseDTO() {
+        return OrganizationMapper.toOrganizationResponseDTO(organization);
+    }
+
+    @Benchmark
+    public String[] toCsvRow() {
+        return OrganizationMapper.toCsvRow(organization);
+    }
+}
@@ -0,0 +1,126 @@
+package organization.bench;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.openjdk.jmh.annotations.*;
+import organization.dto.OrganizationPageRequest;
+import organization.entity.Organization;
+import organization.repository.OrganizationRepository;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запросы OrganizationRepository на встроенной H2 (режим PostgreSQL) с тем же persistence unit,
+ * что и в приложении (L2-кэш, sequence ID). Абсолютные цифры отличаются от PostgreSQL,
+ * бенчмарк нужен для сравнения коммитов между собой.
+ * После каждой операции persistence context очищается, как в конце HTTP-запроса.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepositoryBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    private EntityManagerFactory emf;
+    private EntityManager em;
+    private OrganizationRepository repository;
+    private List<String> names;
+    private long nextId;
+
+    @Setup
+    public void setUp() throws Exception {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("jakarta.persistence.jdbc.driver", "org.h2.Driver");
+        properties.put("jakarta.persistence.jdbc.url", "jdbc:h2:mem:bench;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        properties.put("jakarta.persistence.jdbc.user", "sa");
+        properties.put("jakarta.persistence.jdbc.password", "");
+        properties.put("eclipselink.target-database", "H2");
+        properties.put("jakarta.persistence.schema-generation.database.action", "drop-and-create");
+        properties.put("eclipselink.logging.level", "OFF");
+        properties.put("eclipselink.logging.level.sql", "OFF");
+        emf = Persistence.createEntityManagerFactory("organizationPU", properties);
+        em = emf.createEntityManager();
+
+        em.getTransaction().begin();
+        for (int i = 0; i < ROWS; i++) {
+            Organization organization = newOrganization(i);
+            em.persist(organization);
+            if (i % 1000 == 999) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.getTransaction().commit();
+        em.clear();
+
+        repository = new OrganizationRepository();
+        // В приложении EntityManager внедряет CDI
+        Field field = OrganizationRepository.class.getDeclaredField("em");
+        field.setAccessible(true);
+        field.set(repository, em);
+
+        names = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            names.add("Org " + (i * 97));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        em.close();
+        emf.close();
+    }
+
+    private Organization newOrganization(int i) {
+        Organization organization = BenchmarkData.organization(i);
+        // ID выдает sequence, как при обычном persist
+        organization.setId(null);
+        organization.getCoordinates().setId(null);
+        organization.getOfficialAddress().setId(null);
+        organization.getPostalAddress().setId(null);
+        return organization;
+    }
+
+    @Benchmark
+    public Organization findById() {
+        nextId = nextId % ROWS + 1;
+        Organization organization = repository.findById(nextId);
+        repository.clear();
+        return organization;
+    }
+
+    @Benchmark
+    public List<Organization> findPageSortedByName() {
+        List<Organization> page = repository.findPage(OrganizationPageRequest.builder()
+                .page(10).size(50).sortField("name").build());
+        repository.clear();
+        return page;
+    }
+
+    @Benchmark
+    public long countByType() {
+        return repository.count(Map.of("type", "TRUST"));
+    }
+
+    @Benchmark
+    public List<Object[]> findNameTypePairs() {
+        return repository.findNameTypePairs(names);
+    }
+
+    @Benchmark
+    public Organization maxFullName() {
+        Organization organization = repository.getOrganizationWithMaxFullName();
+        repository.clear();
+        return organization;
+    }
+}
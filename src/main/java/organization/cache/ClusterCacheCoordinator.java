@@ -0,0 +1,163 @@
+package organization.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.eclipse.persistence.jpa.JpaHelper;
+import org.eclipse.persistence.sessions.IdentityMapAccessor;
+import organization.config.CacheSettings;
+import organization.config.EntityManagerProducer;
+import organization.entity.Address;
+import organization.entity.Coordinates;
+import organization.entity.Organization;
+import organization.event.OrganizationChangedEvent;
+import organization.metrics.CacheStatistics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Согласование L2-кэша EclipseLink между узлами WildFly (режим organization.cache.cluster=invalidation).
+ * После commit изменения организаций рассылаются остальным узлам, и те вытесняют эти объекты
+ * из своего кэша; следующее чтение возьмет свежие данные из БД. В режиме local ничего не делает.
+ * <p>
+ * Формат сообщения: {@code Organization:1,2,3} — вытеснить объекты, {@code Organization:*} — весь класс,
+ * {@code *} — весь кэш.
+ */
+@ApplicationScoped
+public class ClusterCacheCoordinator {
+
+    private static final Logger LOG = Logger.getLogger(ClusterCacheCoordinator.class.getName());
+
+    private static final String ALL = "*";
+
+    @Inject
+    private EntityManagerProducer emProducer;
+
+    @Inject
+    private QueryResultCache queryCache;
+
+    // EMF узла; берется у EntityManagerProducer при первом обращении, PU не разворачивается при деплое
+    private Supplier<EntityManagerFactory> emf;
+
+    private ClusterCacheInvalidator invalidator;
+
+    public ClusterCacheCoordinator() {
+    }
+
+    // Узел без CDI: так в одной JVM поднимается несколько узлов (ClusterCacheCoordinatorTest)
+    ClusterCacheCoordinator(EntityManagerFactory emf, QueryResultCache queryCache) {
+        this.emf = () -> emf;
+        this.queryCache = queryCache;
+    }
+
+    @PostConstruct
+    public void init() {
+        emf = emProducer::getEmf;
+        if (!CacheSettings.clustered()) return;
+        join(CacheSettings.nodeName());
+    }
+
+    void join(String nodeName) {
+        invalidator = new ClusterCacheInvalidator(nodeName, CacheSettings.clusterName(),
+                CacheSettings.jgroupsConfig(), this::apply);
+    }
+
+    // Узел должен войти в кластер при деплое, а не при первом изменении, иначе он пропустит инвалидации
+    public void onStartup(@Observes @Initialized(ApplicationScoped.class) Object context) {
+        getMode();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (invalidator != null) invalidator.close();
+    }
+
+    // События публикуются сервисами после commit, так что соседи не перечитают старые данные
+    public void onChange(@Observes OrganizationChangedEvent event) {
+        if (invalidator == null) return;
+        // Импорт не перечисляет строки — вытесняем весь класс
+        String ids = event.getIds().isEmpty()
+                ? ALL
+                : event.getIds().stream().map(String::valueOf).collect(Collectors.joining(","));
+        invalidator.publish(Organization.class.getSimpleName() + ":" + ids);
+    }
+
+    // Ручная очистка кэша на одном узле очищает его во всем кластере
+    public void evictAllClusterWide() {
+        if (invalidator != null) invalidator.publish(ALL);
+    }
+
+    public String getMode() {
+        return CacheSettings.clusterMode();
+    }
+
+    public int getMembersCount() {
+        return invalidator == null ? 1 : invalidator.getMembersCount();
+    }
+
+    private void apply(String message) {
+        // Агрегаты зависят от всех организаций
+        queryCache.invalidateAll();
+        Cache cache = emf.get().getCache();
+        if (ALL.equals(message)) {
+            cache.evictAll();
+            LOG.info("L2 cache cleared by cluster");
+            return;
+        }
+
+        int separator = message.indexOf(':');
+        Class<?> type = entityClass(message.substring(0, separator));
+        if (type == null) {
+            LOG.warning("Unknown entity in cache invalidation: " + message);
+            return;
+        }
+
+        String ids = message.substring(separator + 1);
+        if (ALL.equals(ids)) {
+            cache.evict(type);
+            // Адреса и координаты принадлежат организации и меняются вместе с ней
+            cache.evict(Address.class);
+            cache.evict(Coordinates.class);
+            return;
+        }
+
+        IdentityMapAccessor identityMaps = JpaHelper.getServerSession(emf.get()).getIdentityMapAccessor();
+        List<Long> evicted = new ArrayList<>();
+        for (String id : ids.split(",")) {
+            Long key = Long.valueOf(id);
+            Organization cached = (Organization) identityMaps.getFromIdentityMap(key, Organization.class);
+            if (cached == null) continue;
+            evicted.add(key);
+            evictOwned(cache, cached);
+            cache.evict(type, key);
+        }
+        CacheStatistics.evicted(type, evicted.size());
+        LOG.fine(() -> "Evicted by cluster: " + type.getSimpleName() + " " + evicted);
+    }
+
+    private static void evictOwned(Cache cache, Organization organization) {
+        if (organization.getCoordinates() != null) {
+            cache.evict(Coordinates.class, organization.getCoordinates().getId());
+        }
+        if (organization.getOfficialAddress() != null) {
+            cache.evict(Address.class, organization.getOfficialAddress().getId());
+        }
+        if (organization.getPostalAddress() != null) {
+            cache.evict(Address.class, organization.getPostalAddress().getId());
+        }
+    }
+
+    private static Class<?> entityClass(String name) {
+        // Рассылаются только изменения организаций; адреса и координаты вытесняются вместе с ними
+        return Organization.class.getSimpleName().equals(name) ? Organization.class : null;
+    }
+}
@@ -0,0 +1,98 @@
+package organization.cache;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryCreated;
+import org.infinispan.notifications.cachelistener.event.CacheEntryCreatedEvent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Канал инвалидации L2-кэша между узлами на встроенном Infinispan.
+ * Сообщение — запись в реплицируемом (REPL_ASYNC) кэше: каждый узел получает ее и передает
+ * в handler, кроме узла-отправителя. Записи живут недолго, кэш сообщений не растет.
+ * Сами сущности не реплицируются: identity map EclipseLink хранит живые графы объектов,
+ * поэтому узлы прогревают кэш из БД сами, а кластер только сообщает, что стало устаревшим.
+ * Не зависит от CDI: в одной JVM можно поднять несколько узлов с одним clusterName.
+ */
+@Listener
+public class ClusterCacheInvalidator implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(ClusterCacheInvalidator.class.getName());
+
+    private static final String CACHE_NAME = "l2-invalidation";
+    // Сколько живет сообщение; его получают все узлы, которые в кластере в момент отправки
+    private static final long MESSAGE_LIFESPAN_SECONDS = 60;
+
+    private final DefaultCacheManager cacheManager;
+    private final Cache<String, String> messages;
+    private final Consumer<String> handler;
+    private final AtomicLong sequence = new AtomicLong();
+    private final String origin;
+
+    public ClusterCacheInvalidator(String nodeName, String clusterName, String jgroupsConfig,
+                                   Consumer<String> handler) {
+        this.handler = handler;
+
+        GlobalConfigurationBuilder global = GlobalConfigurationBuilder.defaultClusteredBuilder();
+        global.transport()
+                .clusterName(clusterName)
+                .addProperty("configurationFile", jgroupsConfig);
+        if (nodeName != null) {
+            global.transport().nodeName(nodeName);
+            global.cacheManagerName(nodeName);
+        }
+
+        ConfigurationBuilder cache = new ConfigurationBuilder();
+        cache.clustering().cacheMode(CacheMode.REPL_ASYNC);
+        cache.expiration().lifespan(MESSAGE_LIFESPAN_SECONDS, TimeUnit.SECONDS);
+
+        this.cacheManager = new DefaultCacheManager(global.build());
+        cacheManager.defineConfiguration(CACHE_NAME, cache.build());
+        this.messages = cacheManager.getCache(CACHE_NAME);
+        this.origin = String.valueOf(cacheManager.getAddress());
+        messages.addListener(this);
+
+        LOG.info("L2 cache invalidation joined cluster " + clusterName + " as " + origin
+                + ", members: " + cacheManager.getMembers());
+    }
+
+    /**
+     * Рассылает сообщение остальным узлам, не дожидаясь доставки.
+     */
+    public void publish(String message) {
+        messages.putAsync(origin + "#" + sequence.incrementAndGet(), message)
+                .exceptionally(e -> {
+                    LOG.log(Level.WARNING, "Failed to publish cache invalidation: " + message, e);
+                    return null;
+                });
+    }
+
+    public int getMembersCount() {
+        return cacheManager.getMembers() == null ? 1 : cacheManager.getMembers().size();
+    }
+
+    @CacheEntryCreated
+    public void onMessage(CacheEntryCreatedEvent<String, String> event) {
+        // Свои сообщения уже применены локально
+        if (event.isPre() || event.isOriginLocal()) return;
+        try {
+            handler.accept(event.getValue());
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING, "Failed to apply cache invalidation: " + event.getValue(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        cacheManager.stop();
+    }
+}
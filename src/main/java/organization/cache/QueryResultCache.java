@@ -0,0 +1,114 @@
+package organization.cache;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import organization.config.CacheSettings;
+import organization.dto.QueryCacheStatisticsDTO;
+import organization.event.OrganizationChangedEvent;
+import organization.metrics.AppMetrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Кэш результатов агрегирующих запросов по организациям (количество, максимум), ключ — имя запроса и параметры.
+ * Любое изменение организаций меняет результат всех таких запросов, поэтому кэш сбрасывается целиком
+ * по OrganizationChangedEvent (публикуется после commit), после коммита пачки импорта и по инвалидации
+ * с других узлов кластера.
+ * <p>
+ * Поколение защищает от гонки: результат, прочитанный до сброса, в кэш уже не попадет.
+ */
+@ApplicationScoped
+public class QueryResultCache {
+
+    // Заменяет null-результат (например, максимум по пустой таблице)
+    private static final Object NULL = new Object();
+
+    private final Map<Key, Object> results = new ConcurrentHashMap<>();
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String query, List<?> params, Supplier<T> loader) {
+        Stats queryStats = stats(query);
+        if (!CacheSettings.queryCacheEnabled()) {
+            queryStats.misses.increment();
+            return loader.get();
+        }
+
+        Key key = new Key(query, params);
+        Object cached = results.get(key);
+        if (cached != null) {
+            queryStats.hits.increment();
+            return cached == NULL ? null : (T) cached;
+        }
+
+        queryStats.misses.increment();
+        long loadedAt = generation.get();
+        T value = loader.get();
+        if (generation.get() == loadedAt) {
+            // Кэш ограничен по числу записей; переполнение бывает только при множестве разных адресов
+            if (results.size() >= CacheSettings.queryCacheMaxEntries()) results.clear();
+            results.put(key, value == null ? NULL : value);
+            // Сброс мог случиться между проверкой и put
+            if (generation.get() != loadedAt) results.remove(key);
+        }
+        return value;
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        results.clear();
+    }
+
+    public void onChange(@Observes OrganizationChangedEvent event) {
+        invalidateAll();
+    }
+
+    public List<QueryCacheStatisticsDTO> getStatistics() {
+        Map<String, Integer> entries = new ConcurrentHashMap<>();
+        for (Key key : results.keySet()) {
+            entries.merge(key.query(), 1, Integer::sum);
+        }
+
+        List<QueryCacheStatisticsDTO> result = new ArrayList<>();
+        stats.forEach((query, queryStats) -> {
+            long hits = queryStats.hits.sum();
+            long misses = queryStats.misses.sum();
+            result.add(QueryCacheStatisticsDTO.builder()
+                    .query(query)
+                    .hits(hits)
+                    .misses(misses)
+                    .hitRatio(hits + misses == 0 ? 0 : (double) hits / (hits + misses))
+                    .entries(entries.getOrDefault(query, 0))
+                    .build());
+        });
+        result.sort(Comparator.comparing(QueryCacheStatisticsDTO::getQuery));
+        return result;
+    }
+
+    private Stats stats(String query) {
+        Stats queryStats = stats.get(query);
+        if (queryStats != null) return queryStats;
+        return stats.computeIfAbsent(query, q -> {
+            Stats created = new Stats();
+            AppMetrics.bindQueryCacheCounters(q, created.hits, created.misses);
+            return created;
+        });
+    }
+
+    // Параметры — список, допускающий null (например, пустой индекс адреса)
+    private record Key(String query, List<?> params) {
+    }
+
+    private static final class Stats {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+    }
+}
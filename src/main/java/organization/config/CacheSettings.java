@@ -0,0 +1,87 @@
+package organization.config;
+
+import org.eclipse.persistence.annotations.CacheType;
+import org.eclipse.persistence.config.CacheIsolationType;
+
+import java.util.Map;
+
+/**
+ * Настройки L2-кэша. Задаются системными свойствами сервера (например, в standalone.xml),
+ * по умолчанию кэш локальный, как и раньше.
+ */
+public final class CacheSettings {
+
+    public static final String MODE_LOCAL = "local";
+    public static final String MODE_INVALIDATION = "invalidation";
+
+    // Значения по умолчанию: организации с адресами и координатами в общем кэше,
+    // журнал импорта изолирован — его прогресс обновляется JPQL UPDATE из других EntityManager
+    private static final Map<String, EntityCacheConfig> DEFAULTS = Map.of(
+            "Organization", new EntityCacheConfig(CacheType.SOFT_WEAK, 500, 0, CacheIsolationType.SHARED),
+            "Address", new EntityCacheConfig(CacheType.SOFT_WEAK, 1000, 0, CacheIsolationType.SHARED),
+            "Coordinates", new EntityCacheConfig(CacheType.SOFT_WEAK, 500, 0, CacheIsolationType.SHARED),
+            "User", new EntityCacheConfig(CacheType.FULL, 100, 0, CacheIsolationType.SHARED),
+            "ImportOperation", new EntityCacheConfig(CacheType.SOFT_WEAK, 100, 0, CacheIsolationType.ISOLATED));
+
+    private static final EntityCacheConfig FALLBACK =
+            new EntityCacheConfig(CacheType.SOFT_WEAK, 500, 0, CacheIsolationType.ISOLATED);
+
+    private CacheSettings() {
+    }
+
+    /**
+     * Кэш сущности: organization.cache.&lt;Entity&gt;.type (FULL, WEAK, SOFT, SOFT_WEAK, HARD_WEAK, LRU, NONE),
+     * .size, .expiry-ms и .isolation (SHARED, PROTECTED, ISOLATED). Не заданные свойства берутся из DEFAULTS.
+     */
+    public static EntityCacheConfig entity(String entity) {
+        EntityCacheConfig defaults = DEFAULTS.getOrDefault(entity, FALLBACK);
+        String prefix = "organization.cache." + entity + ".";
+
+        String type = System.getProperty(prefix + "type");
+        String isolation = System.getProperty(prefix + "isolation");
+        return new EntityCacheConfig(
+                type == null ? defaults.getType() : cacheType(type),
+                Integer.getInteger(prefix + "size", defaults.getSize()),
+                Long.getLong(prefix + "expiry-ms", defaults.getExpiryMillis()),
+                isolation == null ? defaults.getIsolation() : CacheIsolationType.valueOf(isolation.toUpperCase()));
+    }
+
+    // Кэш результатов агрегирующих запросов (QueryResultCache)
+    public static boolean queryCacheEnabled() {
+        return Boolean.parseBoolean(System.getProperty("organization.cache.query.enabled", "true"));
+    }
+
+    public static int queryCacheMaxEntries() {
+        return Integer.getInteger("organization.cache.query.max-entries", 1000);
+    }
+
+    // LRU — identity map фиксированного размера (CacheIdentityMap), в EclipseLink он называется CACHE
+    public static CacheType cacheType(String name) {
+        String upper = name.trim().toUpperCase();
+        return "LRU".equals(upper) ? CacheType.CACHE : CacheType.valueOf(upper);
+    }
+
+    // local — кэш каждого узла сам по себе; invalidation — узлы рассылают друг другу инвалидацию через Infinispan
+    public static String clusterMode() {
+        return System.getProperty("organization.cache.cluster", MODE_LOCAL);
+    }
+
+    public static boolean clustered() {
+        return MODE_INVALIDATION.equalsIgnoreCase(clusterMode());
+    }
+
+    // Узлы с одинаковым именем кластера видят друг друга
+    public static String clusterName() {
+        return System.getProperty("organization.cache.cluster.name", "organization-l2");
+    }
+
+    // Конфигурация JGroups: встроенные стеки Infinispan или свой файл
+    public static String jgroupsConfig() {
+        return System.getProperty("organization.cache.cluster.jgroups", "default-configs/default-jgroups-tcp.xml");
+    }
+
+    // Имя узла в кластере; null — Infinispan сгенерирует сам
+    public static String nodeName() {
+        return System.getProperty("organization.cache.cluster.node", System.getProperty("jboss.node.name"));
+    }
+}
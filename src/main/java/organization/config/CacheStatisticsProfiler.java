@@ -0,0 +1,33 @@
+package organization.config;
+
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.sessions.SessionProfiler;
+import org.eclipse.persistence.tools.profiler.SessionProfilerAdapter;
+import organization.metrics.CacheStatistics;
+
+/**
+ * Профайлер сессии EclipseLink, который только считает попадания и промахи кэша по классу запроса.
+ * EclipseLink сам сообщает о них (Counter:CacheHits / Counter:CacheMisses), поэтому кэш не нужно
+ * проверять отдельно перед каждым чтением. Остальные операции профайлера — пустые методы адаптера.
+ * Подключен в persistence.xml (eclipselink.profiler).
+ */
+public class CacheStatisticsProfiler extends SessionProfilerAdapter {
+
+    @Override
+    public void occurred(String operationName, DatabaseQuery query, AbstractSession session) {
+        if (query == null || query.getReferenceClass() == null) return;
+
+        if (SessionProfiler.CacheHits.equals(operationName)) {
+            CacheStatistics.hit(query.getReferenceClass());
+        } else if (SessionProfiler.CacheMisses.equals(operationName)) {
+            CacheStatistics.miss(query.getReferenceClass());
+        }
+    }
+
+    // С весом NONE сессия не вызывает профайлер вообще
+    @Override
+    public int getProfileWeight() {
+        return SessionProfiler.NORMAL;
+    }
+}
@@ -0,0 +1,22 @@
+package organization.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.eclipse.persistence.annotations.CacheType;
+import org.eclipse.persistence.config.CacheIsolationType;
+
+/**
+ * Настройки L2-кэша одной сущности: тип identity map, размер, время жизни и изоляция.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntityCacheConfig {
+    private CacheType type;
+    private int size;
+    // 0 — объекты не устаревают по времени
+    private long expiryMillis;
+    // SHARED — общий кэш, ISOLATED — только кэш EntityManager; меняется только при старте
+    private CacheIsolationType isolation;
+}
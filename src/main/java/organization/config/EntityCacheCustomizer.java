@@ -0,0 +1,52 @@
+package organization.config;
+
+import org.eclipse.persistence.config.DescriptorCustomizer;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.descriptors.invalidation.NoExpiryCacheInvalidationPolicy;
+import org.eclipse.persistence.descriptors.invalidation.TimeToLiveCacheInvalidationPolicy;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Настраивает L2-кэш сущности из CacheSettings вместо аннотаций.
+ * Подключен в persistence.xml (eclipselink.descriptor.customizer.&lt;Entity&gt;);
+ * apply() используется и при изменении настроек на лету (CacheConfigService).
+ */
+public class EntityCacheCustomizer implements DescriptorCustomizer {
+
+    // Действующие настройки по классу сущности
+    private static final Map<Class<?>, EntityCacheConfig> APPLIED = new ConcurrentHashMap<>();
+
+    @Override
+    public void customize(ClassDescriptor descriptor) {
+        EntityCacheConfig config = CacheSettings.entity(descriptor.getJavaClass().getSimpleName());
+        descriptor.setCacheIsolation(config.getIsolation());
+        apply(descriptor, config);
+    }
+
+    /**
+     * Тип, размер и время жизни кэша. Новый тип и размер вступают в силу,
+     * когда identity map класса создается заново.
+     */
+    public static void apply(ClassDescriptor descriptor, EntityCacheConfig config) {
+        switch (config.getType()) {
+            case FULL -> descriptor.useFullIdentityMap();
+            case WEAK -> descriptor.useWeakIdentityMap();
+            case SOFT -> descriptor.useSoftIdentityMap();
+            case HARD_WEAK -> descriptor.useHardCacheWeakIdentityMap();
+            case CACHE -> descriptor.useCacheIdentityMap();
+            case NONE -> descriptor.useNoIdentityMap();
+            default -> descriptor.useSoftCacheWeakIdentityMap();
+        }
+        descriptor.setIdentityMapSize(config.getSize());
+        descriptor.setCacheInvalidationPolicy(config.getExpiryMillis() > 0
+                ? new TimeToLiveCacheInvalidationPolicy(config.getExpiryMillis())
+                : new NoExpiryCacheInvalidationPolicy());
+        APPLIED.put(descriptor.getJavaClass(), config);
+    }
+
+    public static EntityCacheConfig current(Class<?> type) {
+        return APPLIED.get(type);
+    }
+}
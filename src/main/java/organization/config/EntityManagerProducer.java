@@ -9,13 +9,17 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
 import org.apache.commons.dbcp2.BasicDataSource;
+import organization.metrics.AppMetrics;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.logging.Logger;
 
 @ApplicationScoped
 public class EntityManagerProducer {
 
+    private static final Logger LOG = Logger.getLogger(EntityManagerProducer.class.getName());
+
     private EntityManagerFactory emf;
     private BasicDataSource dataSource;
 
@@ -34,6 +38,10 @@ public class EntityManagerProducer {
         dataSource.setMinIdle(5);
         dataSource.setMaxWaitMillis(5000);
 
+        // Драйвер склеивает JDBC-батчи в multi-row INSERT (массовый импорт)
+        dataSource.addConnectionProperty("reWriteBatchedInserts", "true");
+        AppMetrics.bindDataSource(dataSource);
+
         Map<String, Object> properties = new HashMap<>();
 
         // Передаем наш DataSource
@@ -47,6 +55,13 @@ public class EntityManagerProducer {
         properties.put("eclipselink.jdbc.password", "");
 
         this.emf = Persistence.createEntityManagerFactory("organizationPU", properties);
+
+        // Первый EntityManager разворачивает PU (создание/обновление таблиц),
+        // после чего выравниваем sequence для ID под существующие данные, создаем индексы и триггеры счетчиков
+        emf.createEntityManager().close();
+        IdSequenceMigration.migrate(dataSource);
+        SchemaIndexMigration.migrate(dataSource);
+        OrganizationStatisticsMigration.migrate(dataSource);
     }
 
     @Produces
@@ -70,12 +85,10 @@ public class EntityManagerProducer {
 
     public void clearAllCaches() {
         if (emf != null && emf.isOpen()) {
-            // Очищаем кэш для Organization и всех кэшируемых сущностей.
-            // Если вы используете Infinispan, это очистит все, чем управляет JPA.
+            // Очищаем кэш для Organization и всех кэшируемых сущностей на этом узле.
+            // Остальным узлам кластера сообщает ClusterCacheCoordinator.
             emf.getCache().evictAll();
-            System.out.println("=======================================================");
-            System.out.println(">>> L2 CACHE CLEARED MANUALLY");
-            System.out.println("=======================================================");
+            LOG.info("L2 cache cleared manually");
         }
     }
 
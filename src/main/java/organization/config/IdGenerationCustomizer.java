@@ -0,0 +1,74 @@
+package organization.config;
+
+import org.eclipse.persistence.config.SessionCustomizer;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.sequencing.NativeSequence;
+import org.eclipse.persistence.sessions.DatasourceLogin;
+import org.eclipse.persistence.sessions.Session;
+import organization.entity.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Переключает стратегию генерации ID для всех сущностей.
+ * <ul>
+ *   <li>{@code sequence} (по умолчанию) — sequence PostgreSQL с INCREMENT BY = allocation size:
+ *   EclipseLink берет блок ID одним nextval и раздает их из памяти, INSERT можно батчить;</li>
+ *   <li>{@code identity} — старое поведение (SERIAL-колонка, ID читается после каждого INSERT).</li>
+ * </ul>
+ * Настраивается системными свойствами {@code organization.id.strategy} и
+ * {@code organization.id.allocation-size}. Подключен в persistence.xml.
+ */
+public class IdGenerationCustomizer implements SessionCustomizer {
+
+    public static final String STRATEGY_PROPERTY = "organization.id.strategy";
+    public static final String ALLOCATION_SIZE_PROPERTY = "organization.id.allocation-size";
+
+    // Имя, под которым EclipseLink регистрирует IDENTITY-генератор
+    private static final String IDENTITY_SEQUENCE = "SEQ_GEN_IDENTITY";
+
+    // Сущность -> таблица; sequence называется <таблица>_seq (см. @SequenceGenerator)
+    static final Map<Class<?>, String> TABLES = new LinkedHashMap<>();
+
+    static {
+        TABLES.put(Organization.class, "organizations");
+        TABLES.put(Coordinates.class, "coordinates");
+        TABLES.put(Address.class, "addresses");
+        TABLES.put(Location.class, "location");
+        TABLES.put(ImportOperation.class, "import_operation");
+        TABLES.put(User.class, "app_user");
+    }
+
+    public static boolean useSequences() {
+        return !"identity".equalsIgnoreCase(System.getProperty(STRATEGY_PROPERTY, "sequence"));
+    }
+
+    public static int allocationSize() {
+        return Integer.getInteger(ALLOCATION_SIZE_PROPERTY, 50);
+    }
+
+    static String sequenceName(String table) {
+        return table + "_seq";
+    }
+
+    @Override
+    public void customize(Session session) {
+        DatasourceLogin login = (DatasourceLogin) session.getDatasourceLogin();
+
+        for (Map.Entry<Class<?>, String> entry : TABLES.entrySet()) {
+            ClassDescriptor descriptor = session.getProject().getClassDescriptor(entry.getKey());
+            if (descriptor == null) continue;
+
+            if (useSequences()) {
+                String sequence = sequenceName(entry.getValue());
+                // Перерегистрируем sequence, чтобы allocation size брался из настроек, а не из аннотации
+                login.addSequence(new NativeSequence(sequence, allocationSize(), false));
+                descriptor.setSequenceNumberName(sequence);
+            } else {
+                login.addSequence(new NativeSequence(IDENTITY_SEQUENCE, 1, true));
+                descriptor.setSequenceNumberName(IDENTITY_SEQUENCE);
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package organization.config;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.logging.Logger;
+
+/**
+ * Миграция ID при переходе с IDENTITY на sequence (и обратно).
+ * Запускается при старте после того, как EclipseLink создал/обновил таблицы:
+ * создает недостающие sequence, выставляет им INCREMENT BY = allocation size и
+ * сдвигает их за MAX(id), чтобы новые ID не пересекались с уже существующими строками.
+ * Миграция идемпотентна и sequence назад не двигает.
+ */
+public final class IdSequenceMigration {
+
+    private static final Logger LOG = Logger.getLogger(IdSequenceMigration.class.getName());
+
+    private IdSequenceMigration() {
+    }
+
+    public static void migrate(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            for (String table : IdGenerationCustomizer.TABLES.values()) {
+                if (!tableExists(connection, table)) continue;
+
+                if (IdGenerationCustomizer.useSequences()) {
+                    migrateToSequence(connection, table);
+                } else {
+                    alignSerialSequence(connection, table);
+                }
+            }
+            LOG.info("ID sequences aligned, strategy: "
+                    + (IdGenerationCustomizer.useSequences() ? "sequence" : "identity"));
+        } catch (SQLException e) {
+            throw new RuntimeException("ID sequence migration failed", e);
+        }
+    }
+
+    private static void migrateToSequence(Connection connection, String table) throws SQLException {
+        String sequence = IdGenerationCustomizer.sequenceName(table);
+        int allocationSize = IdGenerationCustomizer.allocationSize();
+
+        try (Statement st = connection.createStatement()) {
+            st.execute("CREATE SEQUENCE IF NOT EXISTS " + sequence + " INCREMENT BY " + allocationSize);
+            st.execute("ALTER SEQUENCE " + sequence + " INCREMENT BY " + allocationSize);
+            // EclipseLink считает, что nextval = v выдает блок (v - size, v], поэтому
+            // last_value должен быть не меньше MAX(id): следующий блок начнется с MAX(id) + 1
+            st.execute("SELECT setval('" + sequence + "', GREATEST(" +
+                    "(SELECT COALESCE(MAX(id), 0) FROM " + table + "), " +
+                    "(SELECT last_value FROM " + sequence + "), 1), true)");
+        }
+    }
+
+    private static void alignSerialSequence(Connection connection, String table) throws SQLException {
+        // Таблицы, созданные в режиме IDENTITY, имеют SERIAL-колонку со своей sequence
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT setval(s.name, GREATEST((SELECT COALESCE(MAX(id), 0) FROM " + table + "), 1), true) " +
+                        "FROM (SELECT pg_get_serial_sequence(?, 'id') AS name) s WHERE s.name IS NOT NULL")) {
+            ps.setString(1, table);
+            ps.execute();
+        }
+    }
+
+    private static boolean tableExists(Connection connection, String table) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT to_regclass(?) IS NOT NULL")) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package organization.config;
+
+import organization.entity.DuplicateFilePolicy;
+
+import java.util.logging.Logger;
+
+/**
+ * Настройки импорта. Задаются системными свойствами сервера (например, в standalone.xml),
+ * значения по умолчанию рассчитаны на небольшой стенд.
+ */
+public final class ImportSettings {
+
+    private static final Logger LOG = Logger.getLogger(ImportSettings.class.getName());
+
+    private ImportSettings() {
+    }
+
+    // Сколько импортов выполняется одновременно
+    public static int workers() {
+        return Integer.getInteger("organization.import.workers", 2);
+    }
+
+    // Сколько импортов может ждать в очереди; сверх этого загрузка отклоняется
+    public static int queueCapacity() {
+        return Integer.getInteger("organization.import.queue-capacity", 20);
+    }
+
+    // Через сколько строк коммитить в режиме CHUNKED
+    public static int chunkSize() {
+        return Integer.getInteger("organization.import.chunk-size", 10000);
+    }
+
+    // Повторная загрузка уже импортированного файла: import (по умолчанию), skip или reject
+    public static DuplicateFilePolicy duplicatePolicy() {
+        String policy = System.getProperty("organization.import.duplicate-policy", "import");
+        try {
+            return DuplicateFilePolicy.valueOf(policy.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            LOG.warning("Unknown organization.import.duplicate-policy '" + policy + "', using import");
+            return DuplicateFilePolicy.IMPORT;
+        }
+    }
+
+    // Потоки разбора и валидации CSV (CPU-bound), по умолчанию по числу ядер
+    public static int parseThreads() {
+        return Integer.getInteger("organization.import.parse-threads", Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -11,8 +11,14 @@ public class ObjectMapperProvider implements ContextResolver<ObjectMapper> {
     private final ObjectMapper objectMapper;
 
     public ObjectMapperProvider() {
-        objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper = createObjectMapper();
+    }
+
+    // Общая настройка Jackson (нужна и вне JAX-RS, например при потоковом экспорте)
+    public static ObjectMapper createObjectMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        return mapper;
     }
 
     @Override
@@ -0,0 +1,131 @@
+package organization.config;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.logging.Logger;
+
+/**
+ * Сводные таблицы для count-by-type и count-by-postal-address, которые поддерживают триггеры PostgreSQL.
+ * Триггеры уровня оператора (transition tables) видят все пути записи: JPA, JDBC-батчи импорта,
+ * каскадное удаление; многострочный INSERT импорта обновляет счетчик одним UPSERT на тип/адрес.
+ * <p>
+ * Счетчик типа разбит на SLOTS строк по backend pid: параллельные транзакции (импорт и правки в UI)
+ * обновляют разные строки и не ждут друг друга, а чтение — сумма нескольких строк.
+ * Запускается при старте после IdSequenceMigration; при первом создании таблицы заполняются из данных.
+ */
+public final class OrganizationStatisticsMigration {
+
+    private static final Logger LOG = Logger.getLogger(OrganizationStatisticsMigration.class.getName());
+
+    static final int SLOTS = 16;
+
+    // Общая часть триггерных функций: применяет изменения d(type, street, zipcode, delta) к счетчикам
+    private static final String APPLY_DELTAS =
+            "t AS (INSERT INTO organization_type_counts AS c (type, slot, cnt) " +
+                    "SELECT type, pg_backend_pid() % " + SLOTS + ", SUM(delta) FROM d GROUP BY type HAVING SUM(delta) <> 0 " +
+                    "ON CONFLICT (type, slot) DO UPDATE SET cnt = c.cnt + EXCLUDED.cnt) " +
+            "INSERT INTO organization_postal_counts AS c (street, zipcode, cnt) " +
+                    "SELECT street, zipcode, SUM(delta) FROM d GROUP BY street, zipcode HAVING SUM(delta) <> 0 " +
+                    "ON CONFLICT (street, zipcode) DO UPDATE SET cnt = c.cnt + EXCLUDED.cnt;";
+
+    private static final String INSERTED =
+            "SELECT n.type, a.street, a.zipcode, 1 AS delta FROM new_rows n JOIN addresses a ON a.id = n.postaladdress_id";
+
+    private static final String DELETED =
+            "SELECT o.type, a.street, a.zipcode, -1 AS delta FROM old_rows o JOIN addresses a ON a.id = o.postaladdress_id";
+
+    // Учитываются только строки, у которых поменялся тип или почтовый адрес
+    private static final String UPDATED =
+            "SELECT n.type, a.street, a.zipcode, 1 AS delta FROM new_rows n JOIN old_rows o ON o.id = n.id " +
+                    "JOIN addresses a ON a.id = n.postaladdress_id " +
+                    "WHERE n.type IS DISTINCT FROM o.type OR n.postaladdress_id IS DISTINCT FROM o.postaladdress_id " +
+            "UNION ALL " +
+            "SELECT o.type, a.street, a.zipcode, -1 FROM old_rows o JOIN new_rows n ON n.id = o.id " +
+                    "JOIN addresses a ON a.id = o.postaladdress_id " +
+                    "WHERE n.type IS DISTINCT FROM o.type OR n.postaladdress_id IS DISTINCT FROM o.postaladdress_id";
+
+    // Правка самого почтового адреса переносит его организации на новую пару (street, zipcode)
+    private static final String ADDRESS_UPDATED =
+            "SELECT org.type, n.street, n.zipcode, 1 AS delta FROM new_rows n JOIN old_rows o ON o.id = n.id " +
+                    "JOIN organizations org ON org.postaladdress_id = n.id " +
+                    "WHERE n.street IS DISTINCT FROM o.street OR n.zipcode IS DISTINCT FROM o.zipcode " +
+            "UNION ALL " +
+            "SELECT org.type, o.street, o.zipcode, -1 FROM old_rows o JOIN new_rows n ON n.id = o.id " +
+                    "JOIN organizations org ON org.postaladdress_id = o.id " +
+                    "WHERE n.street IS DISTINCT FROM o.street OR n.zipcode IS DISTINCT FROM o.zipcode";
+
+    private OrganizationStatisticsMigration() {
+    }
+
+    public static void migrate(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!tableExists(connection, "organizations") || !tableExists(connection, "addresses")) return;
+
+            connection.setAutoCommit(false);
+            try (Statement st = connection.createStatement()) {
+                boolean created = !tableExists(connection, "organization_type_counts");
+                st.execute("CREATE TABLE IF NOT EXISTS organization_type_counts (" +
+                        "type VARCHAR(255) NOT NULL, slot INT NOT NULL, cnt BIGINT NOT NULL, PRIMARY KEY (type, slot))");
+                st.execute("CREATE TABLE IF NOT EXISTS organization_postal_counts (" +
+                        "street VARCHAR(255) NOT NULL, zipcode VARCHAR(255) NOT NULL, cnt BIGINT NOT NULL, " +
+                        "PRIMARY KEY (street, zipcode))");
+
+                createTrigger(st, "organizations", "organization_counts_ins", "INSERT",
+                        "NEW TABLE AS new_rows", INSERTED);
+                createTrigger(st, "organizations", "organization_counts_del", "DELETE",
+                        "OLD TABLE AS old_rows", DELETED);
+                createTrigger(st, "organizations", "organization_counts_upd", "UPDATE",
+                        "OLD TABLE AS old_rows NEW TABLE AS new_rows", UPDATED);
+                createTrigger(st, "addresses", "organization_counts_addr", "UPDATE",
+                        "OLD TABLE AS old_rows NEW TABLE AS new_rows", ADDRESS_UPDATED);
+
+                if (created) rebuild(st);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+            LOG.info("Organization statistics tables and triggers are up to date");
+        } catch (SQLException e) {
+            throw new RuntimeException("Organization statistics migration failed", e);
+        }
+    }
+
+    /**
+     * Пересчитывает счетчики по текущим данным. Записи в organizations на это время блокируются,
+     * триггеры уже установлены в той же транзакции, так что изменения не теряются.
+     */
+    static void rebuild(Statement st) throws SQLException {
+        st.execute("LOCK TABLE organizations IN SHARE MODE");
+        st.execute("DELETE FROM organization_type_counts");
+        st.execute("DELETE FROM organization_postal_counts");
+        st.execute("INSERT INTO organization_type_counts (type, slot, cnt) " +
+                "SELECT type, 0, COUNT(*) FROM organizations GROUP BY type");
+        st.execute("INSERT INTO organization_postal_counts (street, zipcode, cnt) " +
+                "SELECT a.street, a.zipcode, COUNT(*) FROM organizations o JOIN addresses a ON a.id = o.postaladdress_id " +
+                "GROUP BY a.street, a.zipcode");
+    }
+
+    private static void createTrigger(Statement st, String table, String name, String event,
+                                      String transitionTables, String deltas) throws SQLException {
+        st.execute("CREATE OR REPLACE FUNCTION " + name + "() RETURNS trigger AS $$ BEGIN " +
+                "WITH d AS (" + deltas + "), " + APPLY_DELTAS +
+                " RETURN NULL; END $$ LANGUAGE plpgsql");
+        st.execute("DROP TRIGGER IF EXISTS " + name + " ON " + table);
+        st.execute("CREATE TRIGGER " + name + " AFTER " + event + " ON " + table +
+                " REFERENCING " + transitionTables + " FOR EACH STATEMENT EXECUTE FUNCTION " + name + "()");
+    }
+
+    private static boolean tableExists(Connection connection, String table) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT to_regclass(?) IS NOT NULL")) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+}
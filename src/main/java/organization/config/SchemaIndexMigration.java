@@ -0,0 +1,122 @@
+package organization.config;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Индексы под специальные запросы. EclipseLink в режиме "update" создает индексы только вместе с новой
+ * таблицей, поэтому они создаются при старте (IF NOT EXISTS, повторный запуск ничего не меняет).
+ */
+public final class SchemaIndexMigration {
+
+    private static final Logger LOG = Logger.getLogger(SchemaIndexMigration.class.getName());
+
+    public static final String FULLNAME_INDEX = "organizations_fullname_idx";
+    public static final String NAME_TYPE_INDEX = "organizations_name_type_idx";
+    public static final String STREET_ZIP_INDEX = "addresses_street_zipcode_idx";
+    public static final String POSTAL_ADDRESS_INDEX = "organizations_postaladdress_idx";
+
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final String NAME_TYPE_UNIQUE_TMP = "organizations_name_type_uniq_tmp";
+
+    private static volatile boolean nameTypeUnique = false;
+
+    // Имя индекса -> таблица и колонки
+    static final Map<String, String> INDEXES = new LinkedHashMap<>();
+
+    static {
+        // Максимальный fullName: ORDER BY fullname DESC LIMIT 1 читает одну запись с конца индекса
+        INDEXES.put(FULLNAME_INDEX, "organizations (fullname)");
+        // Уникальность (name, type): арбитр для INSERT ... ON CONFLICT при создании и импорте
+        INDEXES.put(NAME_TYPE_INDEX, "organizations (name, type)");
+        // Подсчет по почтовому адресу
+        INDEXES.put(STREET_ZIP_INDEX, "addresses (street, zipcode)");
+        // Организации по адресу: триггер счетчиков при правке адреса и проверка FK при удалении адреса
+        INDEXES.put(POSTAL_ADDRESS_INDEX, "organizations (postaladdress_id)");
+        // Поиск прежнего импорта того же файла по SHA-256
+        INDEXES.put("import_operation_sha256_idx", "import_operation (content_sha256)");
+    }
+
+    private SchemaIndexMigration() {
+    }
+
+    public static void migrate(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             Statement st = connection.createStatement()) {
+            for (Map.Entry<String, String> index : INDEXES.entrySet()) {
+                String table = index.getValue().substring(0, index.getValue().indexOf(' '));
+                if (!tableExists(connection, table)) continue;
+                if (NAME_TYPE_INDEX.equals(index.getKey())) {
+                    createNameTypeIndex(connection, st);
+                } else {
+                    st.execute("CREATE INDEX IF NOT EXISTS " + index.getKey() + " ON " + index.getValue());
+                }
+            }
+            LOG.info("Schema indexes are up to date");
+        } catch (SQLException e) {
+            throw new RuntimeException("Index migration failed", e);
+        }
+    }
+
+    /**
+     * Уникальность (name, type) обеспечивает уникальный индекс, по нему работает INSERT ... ON CONFLICT.
+     * Если в старых данных есть дубликаты, индекс создается обычным, а запись проверяет уникальность
+     * запросом (см. {@link #isNameTypeUnique()}); после удаления дубликатов индекс станет уникальным при старте.
+     */
+    private static void createNameTypeIndex(Connection connection, Statement st) throws SQLException {
+        Boolean unique = indexUnique(connection, NAME_TYPE_INDEX);
+        if (Boolean.TRUE.equals(unique)) {
+            nameTypeUnique = true;
+            return;
+        }
+        try {
+            st.execute("CREATE UNIQUE INDEX " + NAME_TYPE_UNIQUE_TMP + " ON " + INDEXES.get(NAME_TYPE_INDEX));
+            // Старый неуникальный индекс заменяется новым под тем же именем
+            st.execute("DROP INDEX IF EXISTS " + NAME_TYPE_INDEX);
+            st.execute("ALTER INDEX " + NAME_TYPE_UNIQUE_TMP + " RENAME TO " + NAME_TYPE_INDEX);
+            nameTypeUnique = true;
+        } catch (SQLException e) {
+            if (!UNIQUE_VIOLATION.equals(e.getSQLState())) throw e;
+            nameTypeUnique = false;
+            if (unique == null) {
+                st.execute("CREATE INDEX " + NAME_TYPE_INDEX + " ON " + INDEXES.get(NAME_TYPE_INDEX));
+            }
+            LOG.warning("Duplicate (name, type) pairs found, " + NAME_TYPE_INDEX + " is non-unique; "
+                    + "uniqueness is checked by queries until duplicates are removed");
+        }
+    }
+
+    // true/false — индекс есть и (не)уникален, null — индекса нет
+    private static Boolean indexUnique(Connection connection, String index) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT i.indisunique FROM pg_index i WHERE i.indexrelid = to_regclass(?)")) {
+            ps.setString(1, index);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getBoolean(1) : null;
+            }
+        }
+    }
+
+    /**
+     * Есть ли в БД уникальный индекс (name, type). Пока его нет, INSERT ... ON CONFLICT невозможен.
+     */
+    public static boolean isNameTypeUnique() {
+        return nameTypeUnique;
+    }
+
+    private static boolean tableExists(Connection connection, String table) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT to_regclass(?) IS NOT NULL")) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+}
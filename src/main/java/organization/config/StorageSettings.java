@@ -0,0 +1,53 @@
+package organization.config;
+
+import organization.entity.ArchiveCodec;
+
+/**
+ * Настройки загрузки файлов в MinIO. Задаются системными свойствами сервера,
+ * как и {@link ImportSettings}.
+ */
+public final class StorageSettings {
+
+    // Минимальный размер части multipart upload в S3 (кроме последней)
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+
+    private StorageSettings() {
+    }
+
+    // Адрес MinIO для сервера приложений
+    public static String endpoint() {
+        return System.getProperty("organization.minio.endpoint", "http://localhost:9000");
+    }
+
+    // Адрес MinIO, доступный клиентам; на него выписываются presigned URL (подпись включает хост)
+    public static String publicEndpoint() {
+        return System.getProperty("organization.minio.public-endpoint", endpoint());
+    }
+
+    // Время жизни presigned URL на скачивание
+    public static int presignExpirySeconds() {
+        return Integer.getInteger("organization.minio.presign-expiry-seconds", 900);
+    }
+
+    // Сжатие новых файлов импорта: gzip (по умолчанию) или none
+    public static ArchiveCodec archiveCodec() {
+        String codec = System.getProperty("organization.minio.archive-codec", "gzip");
+        return "none".equalsIgnoreCase(codec) ? ArchiveCodec.NONE : ArchiveCodec.GZIP;
+    }
+
+    // Уровень gzip 1..9: CSV почти так же хорошо сжимается на низких уровнях, а CPU тратится в разы меньше
+    public static int compressionLevel() {
+        return Math.min(Math.max(Integer.getInteger("organization.minio.compression-level", 3), 1), 9);
+    }
+
+    // Размер части multipart upload; файлы не больше одной части загружаются одним PUT
+    public static long partSize() {
+        long mb = Long.getLong("organization.minio.part-size-mb", 16);
+        return Math.max(mb * 1024 * 1024, MIN_PART_SIZE);
+    }
+
+    // Сколько частей загружается одновременно (на все импорты); память ограничена upload-threads * part-size
+    public static int uploadThreads() {
+        return Math.max(Integer.getInteger("organization.minio.upload-threads", 4), 1);
+    }
+}
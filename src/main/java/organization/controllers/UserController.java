@@ -6,9 +6,11 @@ import jakarta.validation.ValidationException;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import organization.dto.*;
 import organization.entity.Organization;
 import organization.mapper.OrganizationMapper;
+import organization.service.OrganizationExportService;
 import organization.service.OrganizationService;
 
 import java.util.List;
@@ -21,6 +23,9 @@ public class UserController {
     @Inject
     OrganizationService organizationService;
 
+    @Inject
+    OrganizationExportService exportService;
+
     @POST
     public Response createOrganization(OrganizationRequestDTO organization) {
         OrganizationResponseDTO createdOrganization = organizationService.createOrganization(organization);
@@ -69,6 +74,62 @@ public class UserController {
         OrganizationResponseDTO dto = organizationService.absorbOrganization(organizationAbsorbRequestDTO);
         return Response.status(Response.Status.OK).entity(dto).build();
     }
+    // Страница организаций: ?page=0&size=20&sort=name,desc&filter=type:TRUST&filter=name:Foo
+    @GET
+    public Response getOrganizationsPage(@QueryParam("page") @DefaultValue("0") int page,
+                                         @QueryParam("size") @DefaultValue("20") int size,
+                                         @QueryParam("sort") String sort,
+                                         @QueryParam("filter") List<String> filters) {
+        OrganizationPageRequest request = OrganizationPageRequest.builder()
+                .page(page)
+                .size(size)
+                .build();
+
+        if (sort != null && !sort.isBlank()) {
+            String[] parts = sort.split(",");
+            request.setSortField(parts[0].trim());
+            request.setAscending(parts.length < 2 || !"desc".equalsIgnoreCase(parts[1].trim()));
+        }
+        for (String filter : filters) {
+            int separator = filter.indexOf(':');
+            if (separator <= 0) {
+                return Response.status(Response.Status.BAD_REQUEST).entity("Filter must be field:value").build();
+            }
+            request.getFilters().put(filter.substring(0, separator).trim(), filter.substring(separator + 1));
+        }
+
+        try {
+            return Response.ok(organizationService.getOrganizationsPage(request)).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
+        }
+    }
+
+    // Потоковая выгрузка всех организаций: ?format=csv (формат импорта) или ?format=jsonl
+    @GET
+    @Path("/export")
+    @Produces({"text/csv", "application/x-ndjson"})
+    public Response exportOrganizations(@QueryParam("format") @DefaultValue("csv") String format) {
+        StreamingOutput body;
+        String contentType;
+        String fileName;
+        if ("csv".equalsIgnoreCase(format)) {
+            body = exportService::exportCsv;
+            contentType = "text/csv; charset=UTF-8";
+            fileName = "organizations.csv";
+        } else if ("jsonl".equalsIgnoreCase(format)) {
+            body = exportService::exportJsonLines;
+            contentType = "application/x-ndjson";
+            fileName = "organizations.jsonl";
+        } else {
+            return Response.status(Response.Status.BAD_REQUEST).entity("Unsupported format: " + format).build();
+        }
+        return Response.ok(body, contentType)
+                .header("Content-Disposition", "attachment; filename=\"" + fileName + "\"")
+                .build();
+    }
+
+    // Полный список без пагинации (оставлен для совместимости, на больших таблицах используйте GET /organization)
     @GET
     @Path("/all")
     public Response getAllOrganizations() {
@@ -0,0 +1,20 @@
+package organization.csv;
+
+import organization.dto.CsvImportModel;
+import organization.entity.ImportDecoder;
+
+/**
+ * Превращает одну запись CSV (текст строки без перевода строки) в CsvImportModel.
+ * readHeader вызывается один раз до разбора, decode — из нескольких потоков одновременно.
+ * Ошибки данных сообщаются через IllegalArgumentException, номер строки добавляет вызывающий.
+ */
+public interface CsvModelDecoder {
+
+    void readHeader(String header);
+
+    CsvImportModel decode(String record);
+
+    static CsvModelDecoder create(ImportDecoder type) {
+        return type == ImportDecoder.FAST ? new FastCsvModelDecoder() : new OpenCsvModelDecoder();
+    }
+}
@@ -0,0 +1,72 @@
+package organization.csv;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Делит поток на записи CSV: одна строка String на запись, без разбиения на ячейки.
+ * Перевод строки внутри кавычек считается частью записи, пустые строки пропускаются.
+ * Не потокобезопасен, используется одним читателем.
+ */
+public class CsvRecordReader {
+
+    private final Reader in;
+    private final char[] buffer = new char[64 * 1024];
+    private final StringBuilder record = new StringBuilder(256);
+    private int pos = 0;
+    private int limit = 0;
+    private boolean skipLineFeed = false;
+
+    public CsvRecordReader(Reader in) {
+        this.in = in;
+    }
+
+    // Следующая запись или null в конце потока
+    public String next() throws IOException {
+        while (true) {
+            String next = readRecord();
+            if (next == null || !next.isEmpty()) return next;
+        }
+    }
+
+    private String readRecord() throws IOException {
+        record.setLength(0);
+        boolean inQuotes = false;
+        boolean any = false;
+        while (true) {
+            if (pos == limit && !fill()) {
+                return any ? record.toString() : null;
+            }
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (buffer[pos] == '\n') {
+                    pos++;
+                    continue;
+                }
+            }
+            any = true;
+            int start = pos;
+            while (pos < limit) {
+                char c = buffer[pos];
+                if (c == '"') {
+                    // Экранированная кавычка "" переключает флаг дважды
+                    inQuotes = !inQuotes;
+                } else if (!inQuotes && (c == '\n' || c == '\r')) {
+                    record.append(buffer, start, pos - start);
+                    pos++;
+                    skipLineFeed = c == '\r';
+                    return record.toString();
+                }
+                pos++;
+            }
+            record.append(buffer, start, pos - start);
+        }
+    }
+
+    private boolean fill() throws IOException {
+        int n = in.read(buffer, 0, buffer.length);
+        pos = 0;
+        limit = Math.max(n, 0);
+        return n > 0;
+    }
+}
@@ -0,0 +1,311 @@
+package organization.csv;
+
+import organization.dto.CsvImportModel;
+import organization.entity.OrganizationType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ручной декодер под набор колонок CsvImportModel. Ячейки не копируются в отдельные строки:
+ * числа разбираются прямо из текста записи, строка создается только для текстовых полей,
+ * тип организации ищется сравнением без Enum.valueOf и исключений.
+ * Поведение совпадает с OpenCSV-путем: заголовок без учета регистра, лишние колонки игнорируются,
+ * пробелы перед кавычкой пропускаются, пустое число — null, пустое обязательное поле — ошибка
+ * (проверяется CsvModelDecoderParityTest).
+ */
+public class FastCsvModelDecoder implements CsvModelDecoder {
+
+    // Индексы полей совпадают с CsvImportModel.COLUMNS
+    private static final int NAME = 0;
+    private static final int FULL_NAME = 1;
+    private static final int TYPE = 2;
+    private static final int ANNUAL_TURNOVER = 3;
+    private static final int EMPLOYEES_COUNT = 4;
+    private static final int RATING = 5;
+    private static final int X = 6;
+    private static final int Y = 7;
+    private static final int OFFICIAL_STREET = 8;
+    private static final int OFFICIAL_ZIP = 9;
+    private static final int POSTAL_STREET = 10;
+    private static final int POSTAL_ZIP = 11;
+
+    private static final boolean[] REQUIRED = {
+            true, false, true, false, false, false, true, true, true, false, true, false
+    };
+
+    private static final OrganizationType[] TYPES = OrganizationType.values();
+
+    // Степени 10, точно представимые в double/float: деление на них дает корректно округленный результат
+    private static final double[] DOUBLE_POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final float[] FLOAT_POW10 = {
+            1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
+
+    // Колонка файла -> индекс поля или -1, если колонка не нужна
+    private int[] fieldByColumn;
+
+    @Override
+    public void readHeader(String header) {
+        List<String> names = new ArrayList<>();
+        forEachCell(header, (column, s, start, end, escaped) -> names.add(text(s, start, end, escaped).trim()));
+
+        fieldByColumn = new int[names.size()];
+        boolean[] present = new boolean[CsvImportModel.COLUMNS.length];
+        for (int i = 0; i < names.size(); i++) {
+            fieldByColumn[i] = -1;
+            for (int field = 0; field < CsvImportModel.COLUMNS.length; field++) {
+                if (CsvImportModel.COLUMNS[field].equalsIgnoreCase(names.get(i))) {
+                    fieldByColumn[i] = field;
+                    present[field] = true;
+                    break;
+                }
+            }
+        }
+
+        List<String> missing = new ArrayList<>();
+        for (int field = 0; field < REQUIRED.length; field++) {
+            if (REQUIRED[field] && !present[field]) missing.add(CsvImportModel.COLUMNS[field]);
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Header is missing required fields " + missing);
+        }
+    }
+
+    @Override
+    public CsvImportModel decode(String record) {
+        CsvImportModel model = new CsvImportModel();
+        int columns = forEachCell(record, (column, s, start, end, escaped) -> {
+            // Лишние ячейки не разбираем, ошибка будет по итоговому числу колонок
+            if (column < fieldByColumn.length) {
+                int field = fieldByColumn[column];
+                if (field >= 0) assign(model, field, s, start, end, escaped);
+            }
+        });
+        if (columns != fieldByColumn.length) {
+            throw new IllegalArgumentException("Number of data fields does not match number of headers.");
+        }
+        return model;
+    }
+
+    private void assign(CsvImportModel model, int field, String s, int start, int end, boolean escaped) {
+        if (REQUIRED[field] && isBlank(s, start, end)) {
+            throw new IllegalArgumentException("Field '" + CsvImportModel.COLUMNS[field]
+                    + "' is mandatory but no value was provided.");
+        }
+        switch (field) {
+            case NAME: model.setName(text(s, start, end, escaped)); break;
+            case FULL_NAME: model.setFullName(text(s, start, end, escaped)); break;
+            case TYPE: model.setType(parseType(s, start, end)); break;
+            case ANNUAL_TURNOVER: model.setAnnualTurnover(parseDouble(s, start, end, field)); break;
+            case EMPLOYEES_COUNT: model.setEmployeesCount(parseInteger(s, start, end, field)); break;
+            case RATING: model.setRating(parseFloat(s, start, end, field)); break;
+            case X: model.setX(parseDouble(s, start, end, field)); break;
+            case Y: model.setY(parseInteger(s, start, end, field)); break;
+            case OFFICIAL_STREET: model.setOfficialStreet(text(s, start, end, escaped)); break;
+            case OFFICIAL_ZIP: model.setOfficialZipCode(text(s, start, end, escaped)); break;
+            case POSTAL_STREET: model.setPostalStreet(text(s, start, end, escaped)); break;
+            case POSTAL_ZIP: model.setPostalZipCode(text(s, start, end, escaped)); break;
+            default: break;
+        }
+    }
+
+    private static String text(String s, int start, int end, boolean escaped) {
+        String value = s.substring(start, end);
+        return escaped ? value.replace("\"\"", "\"") : value;
+    }
+
+    private static OrganizationType parseType(String s, int start, int end) {
+        start = trimStart(s, start, end);
+        end = trimEnd(s, start, end);
+        int length = end - start;
+        for (OrganizationType type : TYPES) {
+            String name = type.name();
+            if (name.length() == length && s.regionMatches(true, start, name, 0, length)) return type;
+        }
+        throw new IllegalArgumentException("Unknown organization type '" + s.substring(start, end) + "'");
+    }
+
+    private static Integer parseInteger(String s, int start, int end, int field) {
+        start = trimStart(s, start, end);
+        end = trimEnd(s, start, end);
+        if (start == end) return null;
+
+        int i = start;
+        boolean negative = false;
+        char c = s.charAt(i);
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            i++;
+        }
+        if (i == end) throw notANumber(s, start, end, field);
+
+        long value = 0;
+        for (; i < end; i++) {
+            c = s.charAt(i);
+            if (c < '0' || c > '9') throw notANumber(s, start, end, field);
+            value = value * 10 + (c - '0');
+            if (value > (long) Integer.MAX_VALUE + 1) throw notANumber(s, start, end, field);
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) throw notANumber(s, start, end, field);
+        return (int) value;
+    }
+
+    private static Double parseDouble(String s, int start, int end, int field) {
+        start = trimStart(s, start, end);
+        end = trimEnd(s, start, end);
+        if (start == end) return null;
+
+        Decimal d = Decimal.parse(s, start, end, 15, DOUBLE_POW10.length - 1);
+        if (d == null) {
+            // Экспонента, длинная мантисса и т.п. — редкий случай, отдаем стандартному разбору
+            try {
+                return Double.parseDouble(s.substring(start, end));
+            } catch (NumberFormatException e) {
+                throw notANumber(s, start, end, field);
+            }
+        }
+        double value = d.mantissa / DOUBLE_POW10[d.scale];
+        return d.negative ? -value : value;
+    }
+
+    private static Float parseFloat(String s, int start, int end, int field) {
+        start = trimStart(s, start, end);
+        end = trimEnd(s, start, end);
+        if (start == end) return null;
+
+        Decimal d = Decimal.parse(s, start, end, 7, FLOAT_POW10.length - 1);
+        if (d == null) {
+            try {
+                return Float.parseFloat(s.substring(start, end));
+            } catch (NumberFormatException e) {
+                throw notANumber(s, start, end, field);
+            }
+        }
+        float value = d.mantissa / FLOAT_POW10[d.scale];
+        return d.negative ? -value : value;
+    }
+
+    private static IllegalArgumentException notANumber(String s, int start, int end, int field) {
+        return new IllegalArgumentException("Field '" + CsvImportModel.COLUMNS[field]
+                + "': cannot parse number '" + s.substring(start, end) + "'");
+    }
+
+    private static boolean isBlank(String s, int start, int end) {
+        return trimStart(s, start, end) == end;
+    }
+
+    private static int trimStart(String s, int start, int end) {
+        while (start < end && s.charAt(start) <= ' ') start++;
+        return start;
+    }
+
+    private static int trimEnd(String s, int start, int end) {
+        while (end > start && s.charAt(end - 1) <= ' ') end--;
+        return end;
+    }
+
+    /**
+     * Десятичное число вида [-+]digits[.digits] с ограниченным числом значащих цифр.
+     * Такая мантисса и степень 10 точно представимы, поэтому mantissa / 10^scale округляется корректно.
+     */
+    private static final class Decimal {
+        final boolean negative;
+        final long mantissa;
+        final int scale;
+
+        private Decimal(boolean negative, long mantissa, int scale) {
+            this.negative = negative;
+            this.mantissa = mantissa;
+            this.scale = scale;
+        }
+
+        // null, если число не подходит под быстрый путь (или это вообще не число)
+        static Decimal parse(String s, int start, int end, int maxDigits, int maxScale) {
+            int i = start;
+            boolean negative = false;
+            char c = s.charAt(i);
+            if (c == '-' || c == '+') {
+                negative = c == '-';
+                i++;
+            }
+
+            long mantissa = 0;
+            int digits = 0;
+            int scale = 0;
+            boolean dot = false;
+            boolean any = false;
+            for (; i < end; i++) {
+                c = s.charAt(i);
+                if (c >= '0' && c <= '9') {
+                    any = true;
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (mantissa != 0) digits++;
+                    if (dot) scale++;
+                    if (digits > maxDigits || scale > maxScale) return null;
+                } else if (c == '.' && !dot) {
+                    dot = true;
+                } else {
+                    return null;
+                }
+            }
+            return any ? new Decimal(negative, mantissa, scale) : null;
+        }
+    }
+
+    /**
+     * Обход ячеек записи без копирования: для каждой ячейки передает границы ее текста
+     * (без кавычек) и признак того, что внутри есть экранированные кавычки "". Возвращает число ячеек.
+     */
+    private static int forEachCell(String s, CellConsumer consumer) {
+        int length = s.length();
+        int pos = 0;
+        int column = 0;
+        while (true) {
+            // Как withIgnoreLeadingWhiteSpace у OpenCSV: пробелы пропускаются только перед кавычкой,
+            // текст ячейки без кавычек остается как есть
+            int cell = pos;
+            while (pos < length && Character.isWhitespace(s.charAt(pos))) pos++;
+            if (pos >= length || s.charAt(pos) != '"') pos = cell;
+
+            int start;
+            int end;
+            boolean escaped = false;
+            if (pos < length && s.charAt(pos) == '"') {
+                start = ++pos;
+                while (true) {
+                    if (pos >= length) throw new IllegalArgumentException("Unterminated quoted field");
+                    if (s.charAt(pos) == '"') {
+                        if (pos + 1 < length && s.charAt(pos + 1) == '"') {
+                            escaped = true;
+                            pos += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    pos++;
+                }
+                end = pos++;
+                // Символы между закрывающей кавычкой и разделителем игнорируются
+                while (pos < length && s.charAt(pos) != ',') pos++;
+            } else {
+                start = pos;
+                while (pos < length && s.charAt(pos) != ',') pos++;
+                end = pos;
+            }
+
+            consumer.accept(column++, s, start, end, escaped);
+            if (pos >= length) return column;
+            pos++;
+        }
+    }
+
+    @FunctionalInterface
+    private interface CellConsumer {
+        void accept(int column, String s, int start, int end, boolean escaped);
+    }
+}
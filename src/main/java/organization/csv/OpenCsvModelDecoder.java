@@ -0,0 +1,51 @@
+package organization.csv;
+
+import com.opencsv.CSVParser;
+import com.opencsv.CSVParserBuilder;
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.bean.HeaderColumnNameMappingStrategy;
+import com.opencsv.exceptions.CsvException;
+import organization.dto.CsvImportModel;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+// Прежний путь: ячейки режет CSVParser, поля заполняет OpenCSV по @CsvBindByName
+public class OpenCsvModelDecoder implements CsvModelDecoder {
+
+    private final HeaderColumnNameMappingStrategy<CsvImportModel> strategy = new HeaderColumnNameMappingStrategy<>();
+
+    // CSVParser хранит состояние между вызовами, поэтому свой на каждый поток
+    private final ThreadLocal<CSVParser> parsers = ThreadLocal.withInitial(OpenCsvModelDecoder::newParser);
+
+    public OpenCsvModelDecoder() {
+        strategy.setType(CsvImportModel.class);
+    }
+
+    @Override
+    public void readHeader(String header) {
+        try (CSVReader reader = new CSVReaderBuilder(new StringReader(header)).withCSVParser(newParser()).build()) {
+            strategy.captureHeader(reader);
+        } catch (IOException | CsvException e) {
+            throw new IllegalArgumentException("Invalid CSV header: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public CsvImportModel decode(String record) {
+        try {
+            // Стратегия после captureHeader только читает свое состояние, ее можно звать из разных потоков
+            return strategy.populateNewBean(parsers.get().parseLine(record));
+        } catch (IOException | CsvException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    private static CSVParser newParser() {
+        return new CSVParserBuilder()
+                .withSeparator(',')
+                .withIgnoreLeadingWhiteSpace(true)
+                .build();
+    }
+}
@@ -0,0 +1,26 @@
+package organization.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatisticsDTO {
+    private String entity;
+    private long hits;
+    private long misses;
+    // Доля попаданий, 0..1; 0, если обращений еще не было
+    private double hitRatio;
+    private long evictions;
+    // Текущее число объектов в identity map и ее максимальный размер
+    private int size;
+    private int maxSize;
+    // Действующие настройки кэша сущности
+    private String type;
+    private long expiryMillis;
+    private String isolation;
+}
@@ -7,6 +7,14 @@ import organization.entity.OrganizationType;
 @Data
 public class CsvImportModel {
 
+    // Порядок колонок файла (используется экспортом; имена совпадают с @CsvBindByName)
+    public static final String[] COLUMNS = {
+            "name", "fullName", "type", "annualTurnover", "employeesCount", "rating",
+            "coordinates.x", "coordinates.y",
+            "officialAddress.street", "officialAddress.zipCode",
+            "postalAddress.street", "postalAddress.zipCode"
+    };
+
     @CsvBindByName(column = "name", required = true)
     private String name;
 
@@ -0,0 +1,29 @@
+package organization.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.ZonedDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobStatusDTO {
+    private Long id;
+    private String status;
+    private String fileName;
+    private String mode;
+    private String decoder;
+    private String conflictPolicy;
+    private String contentSha256;
+    private Long lastCommittedRow;
+    private Long rowsParsed;
+    private Long rowsPersisted;
+    private Integer addedObjectsCount;
+    private ZonedDateTime startTime;
+    private ZonedDateTime endTime;
+    private String errorMessage;
+}
@@ -0,0 +1,41 @@
+package organization.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrganizationPageRequest {
+
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    // Номер страницы, начиная с 0
+    private int page;
+
+    private int size;
+
+    // Смещение первой строки; если задано, используется вместо page * size (ленивая таблица передает first)
+    private Long offset;
+
+    // Имя поля OrganizationResponseDTO; null — сортировка по id
+    private String sortField;
+
+    @Builder.Default
+    private boolean ascending = true;
+
+    // Поле -> значение, точное совпадение
+    @Builder.Default
+    private Map<String, String> filters = new HashMap<>();
+
+    // Смещение первой строки в long: page * size в int переполняется на больших номерах страниц
+    public long firstResult() {
+        return offset != null ? offset : (long) page * size;
+    }
+}
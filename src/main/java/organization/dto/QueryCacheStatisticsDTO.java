@@ -0,0 +1,20 @@
+package organization.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueryCacheStatisticsDTO {
+    private String query;
+    private long hits;
+    private long misses;
+    // Доля попаданий, 0..1; 0, если обращений еще не было
+    private double hitRatio;
+    // Сколько результатов запроса (с разными параметрами) сейчас в кэше
+    private int entries;
+}
@@ -14,7 +14,8 @@ import lombok.Setter;
 @Table(name = "addresses")
 public class Address {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "addressIdGenerator")
+    @SequenceGenerator(name = "addressIdGenerator", sequenceName = "addresses_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "STREET", nullable=false)
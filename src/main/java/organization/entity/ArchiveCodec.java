@@ -0,0 +1,50 @@
+package organization.entity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Сжатие файла импорта в MinIO
+public enum ArchiveCodec {
+    // Файл хранится как есть (так записаны импорты до включения сжатия)
+    NONE,
+    // gzip: CSV сжимается в несколько раз, распаковка заметно дешевле разбора
+    GZIP;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // У старых записей журнала кодек не заполнен
+    public static ArchiveCodec orNone(ArchiveCodec codec) {
+        return codec == null ? NONE : codec;
+    }
+
+    // Суффикс имени объекта в MinIO
+    public String extension() {
+        return this == GZIP ? ".gz" : "";
+    }
+
+    public String contentType(String rawContentType) {
+        return this == GZIP ? "application/gzip" : rawContentType;
+    }
+
+    // Значение Content-Encoding, под которым сжатые байты можно отдать клиенту как есть
+    public String contentEncoding() {
+        return this == GZIP ? "gzip" : null;
+    }
+
+    // level: 1 (быстрее) .. 9 (плотнее)
+    public OutputStream encode(OutputStream out, int level) throws IOException {
+        if (this == NONE) return out;
+        return new GZIPOutputStream(out, BUFFER_SIZE) {
+            {
+                def.setLevel(level);
+            }
+        };
+    }
+
+    public InputStream decode(InputStream in) throws IOException {
+        return this == GZIP ? new GZIPInputStream(in, BUFFER_SIZE) : in;
+    }
+}
@@ -12,7 +12,8 @@ import lombok.Setter;
 @Table(name = "coordinates")
 public class Coordinates {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "coordinatesIdGenerator")
+    @SequenceGenerator(name = "coordinatesIdGenerator", sequenceName = "coordinates_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "X")
@@ -0,0 +1,11 @@
+package organization.entity;
+
+// Что делать с файлом, совпадающим по SHA-256 с уже успешно импортированным
+public enum DuplicateFilePolicy {
+    // Импорт выполняется, но файл в MinIO не загружается повторно: используется архив прежнего импорта (по умолчанию)
+    IMPORT,
+    // Импорт завершается успешно без записи в БД, со ссылкой на прежний импорт
+    SKIP,
+    // Импорт завершается ошибкой
+    REJECT
+}
@@ -0,0 +1,11 @@
+package organization.entity;
+
+// Что делать со строкой импорта, если организация с такими (name, type) уже есть
+public enum ImportConflictPolicy {
+    // Импорт завершается ошибкой со списком конфликтующих строк
+    FAIL,
+    // Конфликтующая строка пропускается, остальные записываются
+    SKIP,
+    // Существующая организация обновляется данными из файла
+    UPSERT
+}
@@ -0,0 +1,8 @@
+package organization.entity;
+
+public enum ImportDecoder {
+    // Рефлексивное связывание OpenCSV по @CsvBindByName
+    OPENCSV,
+    // Ручной разбор под колонки CsvImportModel, без рефлексии и лишних строк
+    FAST
+}
@@ -0,0 +1,8 @@
+package organization.entity;
+
+public enum ImportMode {
+    // Весь файл в одной транзакции: либо все строки, либо ничего
+    ATOMIC,
+    // Коммит каждые N строк, при сбое импорт можно продолжить с последней закоммиченной строки
+    CHUNKED
+}
@@ -12,7 +12,8 @@ import java.io.Serializable;
 public class ImportOperation implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "importOperationIdGenerator")
+    @SequenceGenerator(name = "importOperationIdGenerator", sequenceName = "import_operation_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -37,4 +38,39 @@ public class ImportOperation implements Serializable {
 
     @Column(name = "minio_object_name")
     private String minioObjectName;
-}
\ No newline at end of file
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    // Прогресс фонового импорта: сколько строк разобрано и сколько записано в БД
+    @Column(name = "rows_parsed")
+    private Long rowsParsed;
+
+    @Column(name = "rows_persisted")
+    private Long rowsPersisted;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "import_mode", length = 20)
+    private ImportMode mode;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "decoder", length = 20)
+    private ImportDecoder decoder;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "conflict_policy", length = 20)
+    private ImportConflictPolicy conflictPolicy;
+
+    // Номер последней строки файла, закоммиченной в режиме CHUNKED (точка продолжения)
+    @Column(name = "last_committed_row")
+    private Long lastCommittedRow;
+
+    // SHA-256 загруженного файла (hex), по нему находятся повторные загрузки того же файла
+    @Column(name = "content_sha256", length = 64)
+    private String contentSha256;
+
+    // Сжатие файла в MinIO; null у импортов, записанных до появления сжатия (файл не сжат)
+    @Enumerated(EnumType.STRING)
+    @Column(name = "archive_codec", length = 10)
+    private ArchiveCodec archiveCodec;
+}
@@ -1,6 +1,7 @@
 package organization.entity;
 
 public enum ImportStatus {
+    QUEUED,
     IN_PROGRESS,
     SUCCESS,
     FAILURE
@@ -13,7 +13,8 @@ import lombok.Setter;
 @Table(name = "location")
 public class Location {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "locationIdGenerator")
+    @SequenceGenerator(name = "locationIdGenerator", sequenceName = "location_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "X", nullable=false)
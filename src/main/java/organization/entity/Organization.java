@@ -17,7 +17,8 @@ import java.time.ZonedDateTime;
 public class Organization implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "organizationIdGenerator")
+    @SequenceGenerator(name = "organizationIdGenerator", sequenceName = "organizations_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "NAME", nullable=false)
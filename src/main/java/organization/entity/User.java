@@ -8,7 +8,8 @@ import java.io.Serializable;
 public class User implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "userIdGenerator")
+    @SequenceGenerator(name = "userIdGenerator", sequenceName = "app_user_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "username", unique = true, nullable = false)
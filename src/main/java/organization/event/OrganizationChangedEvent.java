@@ -0,0 +1,24 @@
+package organization.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * CDI-событие об изменении организаций. Публикуется сервисами после успешного commit,
+ * по нему клиенты обновляют таблицу вместо периодического опроса.
+ */
+@Getter
+@AllArgsConstructor
+public class OrganizationChangedEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED, MERGED, ABSORBED, IMPORTED
+    }
+
+    private final Type type;
+
+    // ID затронутых организаций; для импорта пустой — меняется слишком много строк
+    private final List<Long> ids;
+}
@@ -58,6 +58,56 @@ public class OrganizationMapper {
         return organization;
     }
 
+    public static Organization toOrganization(CsvImportModel model) {
+        if (model == null) return null;
+        Organization organization = new Organization();
+        organization.setName(model.getName());
+        organization.setFullName(model.getFullName());
+        organization.setType(model.getType());
+        organization.setAnnualTurnover(model.getAnnualTurnover());
+        organization.setEmployeesCount(model.getEmployeesCount() != null ? model.getEmployeesCount() : 0);
+        organization.setRating(model.getRating());
+
+        Coordinates coordinates = new Coordinates();
+        coordinates.setX(model.getX() != null ? model.getX() : 0);
+        coordinates.setY(model.getY());
+        organization.setCoordinates(coordinates);
+
+        organization.setOfficialAddress(toAddress(model.getOfficialStreet(), model.getOfficialZipCode()));
+        organization.setPostalAddress(toAddress(model.getPostalStreet(), model.getPostalZipCode()));
+        return organization;
+    }
+
+    // Строка CSV в порядке CsvImportModel.COLUMNS (формат экспорта совместим с импортом)
+    public static String[] toCsvRow(Organization organization) {
+        return new String[]{
+                organization.getName(),
+                organization.getFullName(),
+                organization.getType() != null ? organization.getType().name() : "",
+                toCsvValue(organization.getAnnualTurnover()),
+                String.valueOf(organization.getEmployeesCount()),
+                toCsvValue(organization.getRating()),
+                organization.getCoordinates() != null ? String.valueOf(organization.getCoordinates().getX()) : "",
+                organization.getCoordinates() != null ? toCsvValue(organization.getCoordinates().getY()) : "",
+                organization.getOfficialAddress() != null ? organization.getOfficialAddress().getStreet() : "",
+                organization.getOfficialAddress() != null ? organization.getOfficialAddress().getZipCode() : "",
+                organization.getPostalAddress() != null ? organization.getPostalAddress().getStreet() : "",
+                organization.getPostalAddress() != null ? organization.getPostalAddress().getZipCode() : ""
+        };
+    }
+
+    private static String toCsvValue(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static Address toAddress(String street, String zipCode) {
+        Address address = new Address();
+        address.setStreet(street);
+        // ZIPCODE в БД NOT NULL, а в CSV колонка необязательная
+        address.setZipCode(zipCode != null ? zipCode : "");
+        return address;
+    }
+
     public static Address toAddress(AddressRequestDTO postalAddress) {
         if (postalAddress == null) return null;
         Address address = new Address();
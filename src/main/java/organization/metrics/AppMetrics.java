@@ -0,0 +1,139 @@
+package organization.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.apache.commons.dbcp2.BasicDataSource;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Метрики приложения (Micrometer). Регистр один на приложение и доступен статически:
+ * метрики пишут и CDI-бины, и интерцепторы, и конструктор EntityManagerProducer.
+ * Снимок в формате Prometheus отдает GET /api/metrics.
+ */
+public final class AppMetrics {
+
+    public static final PrometheusMeterRegistry REGISTRY = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+
+    private AppMetrics() {
+    }
+
+    // Фазы импорта: parse_write, upload_wait, commit, total
+    static void recordImportPhase(String phase, boolean success, long nanos) {
+        Timer.builder("organization.import.phase")
+                .description("Duration of import phases")
+                .tag("phase", phase)
+                .tag("outcome", outcome(success))
+                .publishPercentileHistogram()
+                .register(REGISTRY)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public static void countImportedRows(long rows) {
+        REGISTRY.counter("organization.import.rows").increment(rows);
+    }
+
+    // Операции MinIO: upload, download, delete
+    static void recordMinioRequest(String operation, boolean success, long nanos) {
+        Timer.builder("organization.minio.request")
+                .description("MinIO request latency")
+                .tag("operation", operation)
+                .tag("outcome", outcome(success))
+                .publishPercentileHistogram()
+                .register(REGISTRY)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Объем и скорость передачи: upload (файл целиком), upload_part (часть multipart upload)
+    static void recordMinioThroughput(String operation, long bytes, long nanos) {
+        DistributionSummary.builder("organization.minio.bytes")
+                .description("Bytes transferred to MinIO")
+                .baseUnit("bytes")
+                .tag("operation", operation)
+                .register(REGISTRY)
+                .record(bytes);
+        if (nanos <= 0) return;
+        DistributionSummary.builder("organization.minio.throughput")
+                .description("MinIO transfer rate")
+                .baseUnit("bytes_per_second")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(REGISTRY)
+                .record(bytes * 1e9 / nanos);
+    }
+
+    // Сжатие файлов импорта перед загрузкой: время и во сколько раз уменьшился файл
+    public static void recordArchiveCompression(String codec, long rawBytes, long packedBytes, long nanos) {
+        Timer.builder("organization.archive.compress")
+                .description("Import file compression time")
+                .tag("codec", codec)
+                .register(REGISTRY)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        if (packedBytes <= 0) return;
+        DistributionSummary.builder("organization.archive.ratio")
+                .description("Raw to compressed size ratio")
+                .tag("codec", codec)
+                .register(REGISTRY)
+                .record((double) rawBytes / packedBytes);
+    }
+
+    // Транзакции БД: service (CRUD OrganizationService), import
+    static void recordDbTransaction(String name, boolean success, long nanos) {
+        Timer.builder("organization.db.transaction")
+                .description("Database transaction duration")
+                .tag("name", name)
+                .tag("outcome", outcome(success))
+                .publishPercentileHistogram()
+                .register(REGISTRY)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Пул соединений DBCP2
+    public static void bindDataSource(BasicDataSource dataSource) {
+        Gauge.builder("organization.db.pool.active", dataSource, BasicDataSource::getNumActive)
+                .description("Connections in use").register(REGISTRY);
+        Gauge.builder("organization.db.pool.idle", dataSource, BasicDataSource::getNumIdle)
+                .description("Idle connections").register(REGISTRY);
+        Gauge.builder("organization.db.pool.max", dataSource, BasicDataSource::getMaxTotal)
+                .description("Maximum pool size").register(REGISTRY);
+    }
+
+    // Очередь фоновых импортов
+    public static void bindImportPool(ThreadPoolExecutor pool) {
+        Gauge.builder("organization.import.jobs.active", pool, ThreadPoolExecutor::getActiveCount)
+                .description("Imports being executed").register(REGISTRY);
+        Gauge.builder("organization.import.jobs.queued", pool, p -> p.getQueue().size())
+                .description("Imports waiting in the queue").register(REGISTRY);
+    }
+
+    // L2-кэш по сущностям (см. CacheStatistics)
+    static void bindCacheCounters(String entity, LongAdder hits, LongAdder misses, LongAdder evictions) {
+        FunctionCounter.builder("organization.cache.requests", hits, LongAdder::doubleValue)
+                .tag("entity", entity).tag("result", "hit").register(REGISTRY);
+        FunctionCounter.builder("organization.cache.requests", misses, LongAdder::doubleValue)
+                .tag("entity", entity).tag("result", "miss").register(REGISTRY);
+        FunctionCounter.builder("organization.cache.evictions", evictions, LongAdder::doubleValue)
+                .tag("entity", entity).register(REGISTRY);
+    }
+
+    public static void bindQueryCacheCounters(String query, LongAdder hits, LongAdder misses) {
+        FunctionCounter.builder("organization.query_cache.requests", hits, LongAdder::doubleValue)
+                .tag("query", query).tag("result", "hit").register(REGISTRY);
+        FunctionCounter.builder("organization.query_cache.requests", misses, LongAdder::doubleValue)
+                .tag("query", query).tag("result", "miss").register(REGISTRY);
+    }
+
+    public static String scrape() {
+        return REGISTRY.scrape();
+    }
+
+    private static String outcome(boolean success) {
+        return success ? "success" : "failure";
+    }
+}
@@ -0,0 +1,80 @@
+package organization.metrics;
+
+import organization.entity.Address;
+import organization.entity.Coordinates;
+import organization.entity.ImportOperation;
+import organization.entity.Organization;
+import organization.entity.User;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счетчики L2-кэша по классам сущностей. Попадания и промахи приходят из CacheStatisticsProfiler
+ * (события самого EclipseLink, без дополнительной проверки кэша на каждое чтение),
+ * вытеснения — из ручной очистки кэша. LongAdder не создает конкуренции между ядрами на горячем пути.
+ */
+public final class CacheStatistics {
+
+    // Выключатель сбора статистики (чекбокс на главной странице)
+    public static volatile boolean enabled = true;
+
+    private static final Map<Class<?>, Counters> COUNTERS = new ConcurrentHashMap<>();
+
+    static {
+        // Основные сущности видны в статистике сразу, даже без обращений
+        counters(Organization.class);
+        counters(Address.class);
+        counters(Coordinates.class);
+        counters(User.class);
+        counters(ImportOperation.class);
+    }
+
+    private CacheStatistics() {
+    }
+
+    public static void hit(Class<?> type) {
+        if (enabled) counters(type).hits.increment();
+    }
+
+    public static void miss(Class<?> type) {
+        if (enabled) counters(type).misses.increment();
+    }
+
+    public static void evicted(Class<?> type, long count) {
+        if (count > 0) counters(type).evictions.add(count);
+    }
+
+    public static Map<Class<?>, Counters> all() {
+        return COUNTERS;
+    }
+
+    private static Counters counters(Class<?> type) {
+        Counters counters = COUNTERS.get(type);
+        if (counters != null) return counters;
+        return COUNTERS.computeIfAbsent(type, t -> {
+            Counters created = new Counters();
+            AppMetrics.bindCacheCounters(t.getSimpleName(), created.hits, created.misses, created.evictions);
+            return created;
+        });
+    }
+
+    public static final class Counters {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+
+        public long getHits() {
+            return hits.sum();
+        }
+
+        public long getMisses() {
+            return misses.sum();
+        }
+
+        public long getEvictions() {
+            return evictions.sum();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package organization.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// JFR-событие транзакции БД; длительность та же, что у таймера organization.db.transaction
+@Name("organization.DbTransaction")
+@Label("DB Transaction")
+@Category({"Organization", "Database"})
+@Description("Resource-local JPA transaction")
+public class DbTransactionEvent extends Event {
+
+    @Label("Name")
+    String name;
+
+    @Label("Committed")
+    boolean success;
+
+    private transient long startNanos;
+
+    public static DbTransactionEvent start(String name) {
+        DbTransactionEvent event = new DbTransactionEvent();
+        event.name = name;
+        event.startNanos = System.nanoTime();
+        event.begin();
+        return event;
+    }
+
+    public void finish(boolean success) {
+        end();
+        this.success = success;
+        commit();
+        AppMetrics.recordDbTransaction(name, success, System.nanoTime() - startNanos);
+    }
+}
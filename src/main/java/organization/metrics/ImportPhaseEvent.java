@@ -0,0 +1,49 @@
+package organization.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR-событие фазы импорта; длительность та же, что у таймера organization.import.phase.
+ * Использование: {@code ImportPhaseEvent phase = ImportPhaseEvent.start(id, "commit"); ... phase.finish(true, rows);}
+ */
+@Name("organization.ImportPhase")
+@Label("Import Phase")
+@Category({"Organization", "Import"})
+@Description("Phase of a CSV import")
+public class ImportPhaseEvent extends Event {
+
+    @Label("Import ID")
+    long operationId;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Success")
+    boolean success;
+
+    private transient long startNanos;
+
+    public static ImportPhaseEvent start(Long operationId, String phase) {
+        ImportPhaseEvent event = new ImportPhaseEvent();
+        event.operationId = operationId == null ? 0 : operationId;
+        event.phase = phase;
+        event.startNanos = System.nanoTime();
+        event.begin();
+        return event;
+    }
+
+    public void finish(boolean success, long rows) {
+        end();
+        this.success = success;
+        this.rows = rows;
+        commit();
+        AppMetrics.recordImportPhase(phase, success, System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,55 @@
+package organization.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// JFR-событие запроса к MinIO; длительность та же, что у таймера organization.minio.request
+@Name("organization.MinioRequest")
+@Label("MinIO Request")
+@Category({"Organization", "Storage"})
+@Description("Request to the MinIO object storage")
+public class MinioRequestEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Object")
+    String objectName;
+
+    @Label("Success")
+    boolean success;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    private transient long startNanos;
+
+    public static MinioRequestEvent start(String operation, String objectName) {
+        MinioRequestEvent event = new MinioRequestEvent();
+        event.operation = operation;
+        event.objectName = objectName;
+        event.startNanos = System.nanoTime();
+        event.begin();
+        return event;
+    }
+
+    public void finish(boolean success) {
+        end();
+        this.success = success;
+        commit();
+        AppMetrics.recordMinioRequest(operation, success, System.nanoTime() - startNanos);
+    }
+
+    // Для запросов с известным объемом данных (upload, upload_part) дополнительно пишется пропускная способность
+    public void finish(boolean success, long bytes) {
+        long nanos = System.nanoTime() - startNanos;
+        this.bytes = bytes;
+        finish(success);
+        if (success) AppMetrics.recordMinioThroughput(operation, bytes, nanos);
+    }
+}
@@ -5,8 +5,10 @@ import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import organization.entity.ImportOperation;
+import organization.entity.ImportStatus;
 import organization.entity.User;
 
+import java.time.ZonedDateTime;
 import java.util.List;
 
 @ApplicationScoped
@@ -21,6 +23,49 @@ public class ImportOperationRepository {
                 .getResultList();
     }
 
+    public ImportOperation findById(Long id) {
+        return em.find(ImportOperation.class, id);
+    }
+
+    // Итог импорта: выполняется в транзакции самого импорта, чтобы статус коммитился вместе с данными.
+    // persisted меньше rows, если конфликтующие строки пропущены (политика SKIP)
+    public void markSuccess(Long id, long rows, int persisted) {
+        em.createQuery("UPDATE ImportOperation i SET i.status = :status, i.addedObjectsCount = :count, " +
+                        "i.rowsParsed = :rows, i.rowsPersisted = :persisted, i.lastCommittedRow = :rows, " +
+                        "i.endTime = :endTime WHERE i.id = :id")
+                .setParameter("status", ImportStatus.SUCCESS)
+                .setParameter("count", persisted)
+                .setParameter("rows", rows)
+                .setParameter("persisted", (long) persisted)
+                .setParameter("endTime", ZonedDateTime.now())
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+
+    // Точка продолжения режима CHUNKED: пишется в транзакции пачки и коммитится вместе с ней
+    public void markCheckpoint(Long id, long lastRow, int persisted) {
+        em.createQuery("UPDATE ImportOperation i SET i.lastCommittedRow = :row, i.addedObjectsCount = :count " +
+                        "WHERE i.id = :id")
+                .setParameter("row", lastRow)
+                .setParameter("count", persisted)
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+
+    // Успешные импорты файла с тем же содержимым и записанным архивом, от ранних к поздним.
+    // Есть ли объект в MinIO на самом деле, проверяет вызывающий код
+    public List<ImportOperation> findArchivedDuplicates(String contentSha256, Long excludedId, int limit) {
+        if (contentSha256 == null) return List.of();
+        return em.createQuery("SELECT i FROM ImportOperation i WHERE i.contentSha256 = :sha " +
+                        "AND i.status = :status AND i.minioObjectName IS NOT NULL AND i.id <> :id " +
+                        "ORDER BY i.id", ImportOperation.class)
+                .setParameter("sha", contentSha256)
+                .setParameter("status", ImportStatus.SUCCESS)
+                .setParameter("id", excludedId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
     public List<ImportOperation> findByUser(User user) {
         if (user == null) return List.of();
 
@@ -0,0 +1,346 @@
+package organization.repository;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.mappings.foundation.AbstractDirectMapping;
+import org.eclipse.persistence.sequencing.Sequence;
+import org.eclipse.persistence.sessions.Session;
+import organization.config.SchemaIndexMigration;
+import organization.entity.Address;
+import organization.entity.Coordinates;
+import organization.entity.Organization;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Путь массовой записи для импорта. Вместо em.persist + flush на каждую сущность
+ * (4 INSERT и 4 round trip на организацию) пишет пачку организаций тремя JDBC-батчами
+ * в соединении текущей транзакции EntityManager.
+ * ID берутся из пула sequence EclipseLink (без обращения к БД на каждую строку),
+ * а в режиме IDENTITY — одним запросом к SERIAL-sequence на таблицу.
+ */
+@ApplicationScoped
+public class OrganizationBatchWriter {
+
+    private static final String INSERT_COORDINATES =
+            "INSERT INTO coordinates (ID, X, Y) VALUES (?, ?, ?)";
+    private static final String INSERT_ADDRESS =
+            "INSERT INTO addresses (ID, STREET, ZIPCODE) VALUES (?, ?, ?)";
+    private static final String INSERT_ORGANIZATION =
+            "INSERT INTO organizations (ID, NAME, COORDINATES_ID, CREATIONDATE, OFFICIALADDRESS_ID, " +
+                    "ANNUALTURNOVER, EMPLOYEESCOUNT, RATING, FULLNAME, TYPE, POSTALADDRESS_ID) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    // Конфликт по уникальному индексу (name, type) не прерывает батч: строка просто не вставляется
+    private static final String ON_CONFLICT_SKIP = " ON CONFLICT (NAME, TYPE) DO NOTHING";
+
+    // Какие из только что вставленных организаций действительно есть в таблице
+    private static final String SELECT_INSERTED = "SELECT ID FROM organizations WHERE ID = ANY(?)";
+    private static final String DELETE_COORDINATES = "DELETE FROM coordinates WHERE ID = ANY(?)";
+    private static final String DELETE_ADDRESSES = "DELETE FROM addresses WHERE ID = ANY(?)";
+
+    // UPSERT: существующие организации и их зависимые строки обновляются на месте, ID сохраняются
+    private static final String SELECT_EXISTING =
+            "SELECT NAME, TYPE, ID, COORDINATES_ID, OFFICIALADDRESS_ID, POSTALADDRESS_ID " +
+                    "FROM organizations WHERE NAME = ANY(?)";
+    private static final String UPDATE_COORDINATES = "UPDATE coordinates SET X = ?, Y = ? WHERE ID = ?";
+    private static final String UPDATE_ADDRESS = "UPDATE addresses SET STREET = ?, ZIPCODE = ? WHERE ID = ?";
+    private static final String UPDATE_ORGANIZATION =
+            "UPDATE organizations SET ANNUALTURNOVER = ?, EMPLOYEESCOUNT = ?, RATING = ?, FULLNAME = ? WHERE ID = ?";
+
+    // Режим IDENTITY: выделение пачки ID из SERIAL-sequence колонки
+    private static final String ALLOCATE_IDS =
+            "SELECT nextval(pg_get_serial_sequence(?, 'id')) FROM generate_series(1, ?)";
+
+    @Inject
+    private EntityManager em;
+
+    /**
+     * Вставляет организации вместе с координатами и адресами. Должен вызываться внутри
+     * активной транзакции em. Сущности получают ID, но в persistence context не попадают.
+     * Если в БД есть уникальный индекс (name, type), вставка идет через ON CONFLICT DO NOTHING:
+     * возвращаются организации, которые не вставлены из-за конфликта (их координаты и адреса удаляются).
+     * Без индекса конфликтов не бывает и список пустой.
+     */
+    public List<Organization> insertAll(List<Organization> organizations) {
+        if (organizations.isEmpty()) return List.of();
+        boolean onConflict = SchemaIndexMigration.isNameTypeUnique();
+        List<Organization> rejected = List.of();
+
+        // Сначала отправляем в БД все, что накопил persistence context (например, лог импорта)
+        em.flush();
+        Connection connection = em.unwrap(Connection.class);
+        AbstractSession session = (AbstractSession) em.unwrap(Session.class);
+        AbstractDirectMapping creationDateMapping = (AbstractDirectMapping) session
+                .getDescriptor(Organization.class)
+                .getMappingForAttributeName("creationDate");
+
+        int size = organizations.size();
+        try {
+            long[] coordinateIds = allocateIds(session, connection, Coordinates.class, "coordinates", size);
+            long[] addressIds = allocateIds(session, connection, Address.class, "addresses", size * 2);
+            long[] organizationIds = allocateIds(session, connection, Organization.class, "organizations", size);
+
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_COORDINATES)) {
+                for (int i = 0; i < size; i++) {
+                    Coordinates c = organizations.get(i).getCoordinates();
+                    c.setId(coordinateIds[i]);
+                    ps.setLong(1, c.getId());
+                    ps.setDouble(2, c.getX());
+                    ps.setInt(3, c.getY());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_ADDRESS)) {
+                for (int i = 0; i < size; i++) {
+                    Organization org = organizations.get(i);
+                    addAddress(ps, org.getOfficialAddress(), addressIds[i * 2]);
+                    addAddress(ps, org.getPostalAddress(), addressIds[i * 2 + 1]);
+                }
+                ps.executeBatch();
+            }
+
+            try (PreparedStatement ps = connection.prepareStatement(
+                    onConflict ? INSERT_ORGANIZATION + ON_CONFLICT_SKIP : INSERT_ORGANIZATION)) {
+                for (int i = 0; i < size; i++) {
+                    Organization org = organizations.get(i);
+                    org.setId(organizationIds[i]);
+                    // @PrePersist здесь не срабатывает, ставим дату сами
+                    org.setCreationDate(ZonedDateTime.now());
+
+                    ps.setLong(1, org.getId());
+                    ps.setString(2, org.getName());
+                    ps.setLong(3, org.getCoordinates().getId());
+                    // Конвертацию ZonedDateTime делает маппинг EclipseLink, как при обычном persist
+                    ps.setObject(4, creationDateMapping.getFieldValue(org.getCreationDate(), session));
+                    ps.setLong(5, org.getOfficialAddress().getId());
+                    setNullable(ps, 6, org.getAnnualTurnover(), Types.DOUBLE);
+                    ps.setInt(7, org.getEmployeesCount());
+                    setNullable(ps, 8, org.getRating(), Types.REAL);
+                    ps.setString(9, org.getFullName());
+                    ps.setString(10, org.getType().name());
+                    ps.setLong(11, org.getPostalAddress().getId());
+                    ps.addBatch();
+                }
+                int[] counts = ps.executeBatch();
+                if (onConflict) rejected = findRejected(connection, organizations, counts);
+            }
+            if (!rejected.isEmpty()) deleteDependents(connection, rejected);
+        } catch (SQLException e) {
+            SQLException cause = e.getNextException() != null ? e.getNextException() : e;
+            throw new RuntimeException("Batch insert failed: " + cause.getMessage(), cause);
+        }
+
+        // Освобождаем persistence context между пачками
+        em.clear();
+        return rejected;
+    }
+
+    /**
+     * Импорт с политикой UPSERT: организации, чьи (name, type) уже есть в БД, обновляются данными
+     * из пачки вместе с координатами и адресами (ID, имя, тип и дата создания не меняются),
+     * остальные вставляются через {@link #insertAll(List)}. Внутри пачки пары (name, type) должны быть
+     * уникальны. Возвращает организации, которые вставить не удалось (параллельно созданы другим запросом).
+     */
+    public UpsertResult upsertAll(List<Organization> organizations) {
+        if (organizations.isEmpty()) return new UpsertResult(0, List.of());
+
+        em.flush();
+        Connection connection = em.unwrap(Connection.class);
+        List<Organization> inserts = new ArrayList<>();
+        int updated = 0;
+        try {
+            Map<String, long[]> existing = findExisting(connection, organizations);
+            try (PreparedStatement coordinates = connection.prepareStatement(UPDATE_COORDINATES);
+                 PreparedStatement addresses = connection.prepareStatement(UPDATE_ADDRESS);
+                 PreparedStatement orgs = connection.prepareStatement(UPDATE_ORGANIZATION)) {
+                for (Organization org : organizations) {
+                    long[] ids = existing.get(key(org.getName(), org.getType().name()));
+                    if (ids == null) {
+                        inserts.add(org);
+                        continue;
+                    }
+                    org.setId(ids[0]);
+                    org.getCoordinates().setId(ids[1]);
+                    coordinates.setDouble(1, org.getCoordinates().getX());
+                    coordinates.setInt(2, org.getCoordinates().getY());
+                    coordinates.setLong(3, ids[1]);
+                    coordinates.addBatch();
+                    updateAddress(addresses, org.getOfficialAddress(), ids[2]);
+                    updateAddress(addresses, org.getPostalAddress(), ids[3]);
+
+                    setNullable(orgs, 1, org.getAnnualTurnover(), Types.DOUBLE);
+                    orgs.setInt(2, org.getEmployeesCount());
+                    setNullable(orgs, 3, org.getRating(), Types.REAL);
+                    orgs.setString(4, org.getFullName());
+                    orgs.setLong(5, ids[0]);
+                    orgs.addBatch();
+                    updated++;
+                }
+                if (updated > 0) {
+                    coordinates.executeBatch();
+                    addresses.executeBatch();
+                    orgs.executeBatch();
+                }
+            }
+        } catch (SQLException e) {
+            SQLException cause = e.getNextException() != null ? e.getNextException() : e;
+            throw new RuntimeException("Batch upsert failed: " + cause.getMessage(), cause);
+        }
+        return new UpsertResult(updated, insertAll(inserts));
+    }
+
+    // Итог upsertAll: сколько организаций обновлено и какие не удалось вставить
+    @Getter
+    @AllArgsConstructor
+    public static class UpsertResult {
+        private final int updated;
+        private final List<Organization> rejected;
+    }
+
+    private Map<String, long[]> findExisting(Connection connection, List<Organization> organizations)
+            throws SQLException {
+        Set<String> names = new HashSet<>();
+        for (Organization org : organizations) {
+            names.add(org.getName());
+        }
+        Map<String, long[]> existing = new HashMap<>();
+        try (PreparedStatement ps = connection.prepareStatement(SELECT_EXISTING)) {
+            ps.setArray(1, connection.createArrayOf("varchar", names.toArray()));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    existing.put(key(rs.getString(1), rs.getString(2)),
+                            new long[]{rs.getLong(3), rs.getLong(4), rs.getLong(5), rs.getLong(6)});
+                }
+            }
+        }
+        return existing;
+    }
+
+    private static String key(String name, String type) {
+        return name + "|" + type;
+    }
+
+    private void updateAddress(PreparedStatement ps, Address address, long id) throws SQLException {
+        address.setId(id);
+        ps.setString(1, address.getStreet());
+        ps.setString(2, address.getZipCode());
+        ps.setLong(3, id);
+        ps.addBatch();
+    }
+
+    /**
+     * Организации, не вставленные из-за ON CONFLICT DO NOTHING. Драйвер возвращает число строк по каждой
+     * записи батча, но для батча, склеенного в multi-row INSERT (reWriteBatchedInserts), — только
+     * SUCCESS_NO_INFO; тогда вставленные ID проверяются одним запросом.
+     */
+    private List<Organization> findRejected(Connection connection, List<Organization> organizations, int[] counts)
+            throws SQLException {
+        List<Organization> rejected = new ArrayList<>();
+        boolean countsKnown = counts.length == organizations.size();
+        for (int count : counts) {
+            if (count == Statement.SUCCESS_NO_INFO) countsKnown = false;
+        }
+        if (countsKnown) {
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) rejected.add(organizations.get(i));
+            }
+            return rejected;
+        }
+
+        Long[] ids = new Long[organizations.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = organizations.get(i).getId();
+        }
+        Set<Long> inserted = new HashSet<>();
+        try (PreparedStatement ps = connection.prepareStatement(SELECT_INSERTED)) {
+            ps.setArray(1, connection.createArrayOf("bigint", ids));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) inserted.add(rs.getLong(1));
+            }
+        }
+        for (Organization org : organizations) {
+            if (!inserted.contains(org.getId())) rejected.add(org);
+        }
+        return rejected;
+    }
+
+    // Координаты и адреса отклоненных организаций уже вставлены — удаляем, чтобы не оставлять сирот
+    private void deleteDependents(Connection connection, List<Organization> rejected) throws SQLException {
+        Long[] coordinateIds = new Long[rejected.size()];
+        Long[] addressIds = new Long[rejected.size() * 2];
+        for (int i = 0; i < rejected.size(); i++) {
+            Organization org = rejected.get(i);
+            coordinateIds[i] = org.getCoordinates().getId();
+            addressIds[i * 2] = org.getOfficialAddress().getId();
+            addressIds[i * 2 + 1] = org.getPostalAddress().getId();
+        }
+        try (PreparedStatement ps = connection.prepareStatement(DELETE_COORDINATES)) {
+            ps.setArray(1, connection.createArrayOf("bigint", coordinateIds));
+            ps.executeUpdate();
+        }
+        try (PreparedStatement ps = connection.prepareStatement(DELETE_ADDRESSES)) {
+            ps.setArray(1, connection.createArrayOf("bigint", addressIds));
+            ps.executeUpdate();
+        }
+    }
+
+    private void addAddress(PreparedStatement ps, Address address, long id) throws SQLException {
+        address.setId(id);
+        ps.setLong(1, id);
+        ps.setString(2, address.getStreet());
+        ps.setString(3, address.getZipCode());
+        ps.addBatch();
+    }
+
+    private void setNullable(PreparedStatement ps, int index, Object value, int sqlType) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, sqlType);
+        } else {
+            ps.setObject(index, value, sqlType);
+        }
+    }
+
+    private long[] allocateIds(AbstractSession session, Connection connection, Class<?> type,
+                               String table, int count) throws SQLException {
+        long[] ids = new long[count];
+        Sequence sequence = session.getDescriptor(type).getSequence();
+
+        if (sequence != null && !sequence.shouldAcquireValueAfterInsert()) {
+            // Sequence с preallocation: ID выдаются из памяти, nextval — раз в allocation size
+            for (int i = 0; i < count; i++) {
+                ids[i] = ((Number) session.getNextSequenceNumberValue(type)).longValue();
+            }
+            return ids;
+        }
+
+        try (PreparedStatement ps = connection.prepareStatement(ALLOCATE_IDS)) {
+            ps.setString(1, table);
+            ps.setInt(2, count);
+            try (ResultSet rs = ps.executeQuery()) {
+                int i = 0;
+                while (rs.next()) {
+                    ids[i++] = rs.getLong(1);
+                }
+            }
+        }
+        return ids;
+    }
+}
@@ -2,15 +2,19 @@ package organization.repository;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.persistence.CacheStoreMode;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
 import lombok.NoArgsConstructor;
-import organization.config.CacheLog; // Наша новая аннотация
+import organization.dto.OrganizationPageRequest;
 import organization.entity.Address;
 import organization.entity.Organization;
 import organization.entity.OrganizationType;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @ApplicationScoped
 @NoArgsConstructor
@@ -45,15 +49,15 @@ public class OrganizationRepository {
         em.merge(organization);
     }
 
-    // ВАЖНО: Вешаем интерцептор для статистики кэша сюда
-    @CacheLog
     public Organization findById(Long id) {
         return em.find(Organization.class, id);
     }
 
+    // ORDER BY ... LIMIT 1 вместо подзапроса с MAX: одна запись с конца индекса по fullname
     public Organization getOrganizationWithMaxFullName() {
         List<Organization> result = em.createQuery(
-                        "SELECT o FROM Organization o WHERE o.fullName = (SELECT MAX(o2.fullName) FROM Organization o2)", Organization.class)
+                        "SELECT o FROM Organization o ORDER BY o.fullName DESC", Organization.class)
+                .setMaxResults(1)
                 .getResultList();
         return result.isEmpty() ? null : result.get(0);
     }
@@ -82,6 +86,106 @@ public class OrganizationRepository {
                 .getSingleResult();
     }
 
+    // Пары (name, type) среди организаций с указанными именами: set-based проверка уникальности при импорте
+    public List<Object[]> findNameTypePairs(Collection<String> names) {
+        if (names.isEmpty()) return List.of();
+        return em.createQuery("SELECT o.name, o.type FROM Organization o WHERE o.name IN :names", Object[].class)
+                .setParameter("names", names)
+                .getResultList();
+    }
+
+    // Поля, по которым можно сортировать и фильтровать страницу (белый список — в JPQL подставляются только они)
+    private static final Map<String, String> PAGE_FIELDS = Map.of(
+            "id", "o.id",
+            "name", "o.name",
+            "fullName", "o.fullName",
+            "type", "o.type",
+            "employeesCount", "o.employeesCount",
+            "annualTurnover", "o.annualTurnover",
+            "rating", "o.rating"
+    );
+
+    // Одна страница (LIMIT/OFFSET); связи подтягиваются JOIN FETCH, без отдельного SELECT на каждую строку
+    public List<Organization> findPage(OrganizationPageRequest request) {
+        StringBuilder jpql = new StringBuilder("SELECT o FROM Organization o " +
+                "JOIN FETCH o.coordinates JOIN FETCH o.officialAddress JOIN FETCH o.postalAddress");
+        Map<String, Object> params = appendFilters(jpql, request.getFilters());
+
+        String sortField = request.getSortField() != null ? request.getSortField() : "id";
+        jpql.append(" ORDER BY ").append(pageField(sortField)).append(request.isAscending() ? " ASC" : " DESC");
+        if (!"id".equals(sortField)) {
+            jpql.append(", o.id"); // стабильный порядок при одинаковых значениях
+        }
+
+        long first = request.firstResult();
+        if (first > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Page offset " + first + " is too large");
+        }
+
+        TypedQuery<Organization> query = em.createQuery(jpql.toString(), Organization.class);
+        params.forEach(query::setParameter);
+        return query
+                .setFirstResult((int) first)
+                .setMaxResults(request.getSize())
+                .getResultList();
+    }
+
+    public long count(Map<String, String> filters) {
+        StringBuilder jpql = new StringBuilder("SELECT COUNT(o) FROM Organization o");
+        Map<String, Object> params = appendFilters(jpql, filters);
+        TypedQuery<Long> query = em.createQuery(jpql.toString(), Long.class);
+        params.forEach(query::setParameter);
+        return query.getSingleResult();
+    }
+
+    private Map<String, Object> appendFilters(StringBuilder jpql, Map<String, String> filters) {
+        Map<String, Object> params = new HashMap<>();
+        if (filters == null) return params;
+
+        String keyword = " WHERE ";
+        for (Map.Entry<String, String> filter : filters.entrySet()) {
+            if (filter.getValue() == null || filter.getValue().isBlank()) continue;
+            String param = "f_" + filter.getKey();
+            jpql.append(keyword).append(pageField(filter.getKey())).append(" = :").append(param);
+            params.put(param, filterValue(filter.getKey(), filter.getValue().trim()));
+            keyword = " AND ";
+        }
+        return params;
+    }
+
+    private String pageField(String field) {
+        String path = PAGE_FIELDS.get(field);
+        if (path == null) throw new IllegalArgumentException("Unsupported field: " + field);
+        return path;
+    }
+
+    private Object filterValue(String field, String value) {
+        switch (field) {
+            case "id": return Long.valueOf(value);
+            case "type": return OrganizationType.valueOf(value.toUpperCase());
+            case "employeesCount": return Integer.valueOf(value);
+            case "annualTurnover": return Double.valueOf(value);
+            case "rating": return Float.valueOf(value);
+            default: return value;
+        }
+    }
+
+    // Keyset-пагинация для экспорта: следующая порция после lastId, без OFFSET и без записи в L2-кэш
+    public List<Organization> findBatchAfterId(long lastId, int limit) {
+        return em.createQuery("SELECT o FROM Organization o " +
+                        "JOIN FETCH o.coordinates JOIN FETCH o.officialAddress JOIN FETCH o.postalAddress " +
+                        "WHERE o.id > :lastId ORDER BY o.id", Organization.class)
+                .setParameter("lastId", lastId)
+                .setHint("jakarta.persistence.cache.storeMode", CacheStoreMode.BYPASS)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // Отсоединяет прочитанные сущности (экспорт читает порции и не должен держать их в памяти)
+    public void clear() {
+        em.clear();
+    }
+
     public List<Organization> findAll() {
         return em.createQuery("SELECT o FROM Organization o", Organization.class).getResultList();
     }
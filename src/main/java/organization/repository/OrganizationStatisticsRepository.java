@@ -0,0 +1,46 @@
+package organization.repository;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import lombok.NoArgsConstructor;
+import organization.entity.OrganizationType;
+
+/**
+ * Чтение сводных счетчиков, которые поддерживают триггеры (см. OrganizationStatisticsMigration).
+ * Ответ не зависит от размера organizations: суммируется несколько строк по первичному ключу.
+ */
+@ApplicationScoped
+@NoArgsConstructor
+public class OrganizationStatisticsRepository {
+
+    @Inject
+    private EntityManager em;
+
+    // Сравнение по имени типа, как и у o.type < :type для EnumType.STRING
+    public long countByTypeLessThan(OrganizationType type) {
+        Object result = em.createNativeQuery(
+                        "SELECT COALESCE(SUM(cnt), 0) FROM organization_type_counts WHERE type < ?")
+                .setParameter(1, type.name())
+                .getSingleResult();
+        return ((Number) result).longValue();
+    }
+
+    // Пустой индекс — считаем по улице с любым индексом, как OrganizationRepository.countByPostalAddress
+    public long countByPostalAddress(String street, String zipCode) {
+        Object result;
+        if (zipCode == null || zipCode.isBlank()) {
+            result = em.createNativeQuery(
+                            "SELECT COALESCE(SUM(cnt), 0) FROM organization_postal_counts WHERE street = ?")
+                    .setParameter(1, street)
+                    .getSingleResult();
+        } else {
+            result = em.createNativeQuery(
+                            "SELECT COALESCE(SUM(cnt), 0) FROM organization_postal_counts WHERE street = ? AND zipcode = ?")
+                    .setParameter(1, street)
+                    .setParameter(2, zipCode)
+                    .getSingleResult();
+        }
+        return ((Number) result).longValue();
+    }
+}
@@ -0,0 +1,39 @@
+package organization.resource;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.PUT;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import organization.config.EntityCacheConfig;
+import organization.service.CacheStatisticsService;
+
+import java.util.Map;
+
+// Изменение кэша сущности на лету: PUT /cache/config/Organization {"type":"SOFT_WEAK","size":2000,"expiryMillis":0}
+@Path("/cache/config")
+public class CacheConfigResource {
+
+    @Inject
+    private CacheStatisticsService cacheStatisticsService;
+
+    @PUT
+    @Path("/{entity}")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response reconfigure(@PathParam("entity") String entity, EntityCacheConfig request) {
+        if (request == null || request.getType() == null) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(Map.of("error", "Cache type is required")).build();
+        }
+        try {
+            EntityCacheConfig applied = cacheStatisticsService.reconfigure(
+                    entity, request.getType(), request.getSize(), request.getExpiryMillis());
+            return Response.ok(applied).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(Map.of("error", e.getMessage())).build();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package organization.resource;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import organization.cache.QueryResultCache;
+import organization.service.CacheStatisticsService;
+
+// Статистика L2-кэша по сущностям: попадания, промахи, доля попаданий, вытеснения, размер
+@Path("/cache/statistics")
+public class CacheStatisticsResource {
+
+    @Inject
+    private CacheStatisticsService cacheStatisticsService;
+
+    @Inject
+    private QueryResultCache queryCache;
+
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getStatistics() {
+        return Response.status(Response.Status.OK).entity(cacheStatisticsService.getStatistics()).build();
+    }
+
+    // Попадания в кэш результатов агрегирующих запросов
+    @GET
+    @Path("/queries")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getQueryStatistics() {
+        return Response.status(Response.Status.OK).entity(queryCache.getStatistics()).build();
+    }
+}
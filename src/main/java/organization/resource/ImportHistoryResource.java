@@ -1,19 +1,36 @@
 package organization.resource;
 
+import io.minio.StatObjectResponse;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam; // <-- Новый импорт
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.SecurityContext;
+import jakarta.ws.rs.core.StreamingOutput;
+import organization.config.StorageSettings;
+import organization.dto.PresignedUrlDTO;
+import organization.entity.ArchiveCodec;
 import organization.entity.ImportOperation;
 import organization.entity.User;
 import organization.repository.ImportOperationRepository;
 import organization.repository.UserRepository; // <-- Новый импорт
+import organization.service.MinioService;
+import organization.util.ByteRange;
 
+import java.io.InputStream;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
 import java.util.List;
 
 @Path("/import-history")
@@ -25,6 +42,9 @@ public class ImportHistoryResource {
     @Inject
     private UserRepository userRepository;
 
+    @Inject
+    private MinioService minioService;
+
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     public Response getHistory(@QueryParam("username") String username) {
@@ -45,4 +65,145 @@ public class ImportHistoryResource {
 
         return Response.ok(history).build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Файл импорта из MinIO. Тело не буферизуется, а копируется из ответа MinIO в ответ клиенту.
+     * Поддерживаются Range (один диапазон) с If-Range и условные GET по ETag/Last-Modified объекта.
+     * Сжатый файл отдается как есть с Content-Encoding, если клиент его принимает (Accept-Encoding),
+     * иначе распаковывается на лету — тогда без Content-Length и диапазонов.
+     */
+    @GET
+    @Path("/{id}/file")
+    public Response downloadFile(@PathParam("id") Long id, @QueryParam("username") String username,
+                                 @HeaderParam("Range") String range, @HeaderParam("If-Range") String ifRange,
+                                 @HeaderParam("Accept-Encoding") String acceptEncoding,
+                                 @Context Request request) {
+        ImportOperation operation = historyRepository.findById(id);
+        Response denied = checkAccess(operation, id, username);
+        if (denied != null) return denied;
+
+        String objectName = operation.getMinioObjectName();
+        StatObjectResponse stat = minioService.statFile(objectName);
+        if (stat == null) {
+            return Response.status(Response.Status.NOT_FOUND).entity("File of import " + id + " is not in storage").build();
+        }
+
+        ArchiveCodec codec = ArchiveCodec.orNone(operation.getArchiveCodec());
+        boolean decode = codec != ArchiveCodec.NONE && !accepts(acceptEncoding, codec.contentEncoding());
+        // Распакованное и сжатое представления — разные байты, поэтому и ETag у них разный
+        String etagValue = stat.etag().replace("\"", "");
+        EntityTag etag = new EntityTag(decode ? etagValue + "-identity" : etagValue);
+        Date lastModified = Date.from(stat.lastModified().toInstant());
+        // 304 для If-None-Match / If-Modified-Since, 412 для If-Match / If-Unmodified-Since
+        Response.ResponseBuilder precondition = request.evaluatePreconditions(lastModified, etag);
+        if (precondition != null) return precondition.tag(etag).lastModified(lastModified).build();
+
+        Response.ResponseBuilder response;
+        if (decode) {
+            StreamingOutput body = output -> {
+                try (InputStream in = minioService.downloadArchive(objectName, codec)) {
+                    in.transferTo(output);
+                }
+            };
+            response = Response.status(Response.Status.OK).entity(body)
+                    .type("text/csv")
+                    .header("Accept-Ranges", "none");
+        } else {
+            long size = stat.size();
+            // Если файл изменился с момента, указанного в If-Range, диапазон игнорируется
+            ByteRange byteRange = ifRangeMatches(ifRange, etag, lastModified) ? ByteRange.parse(range, size) : null;
+            if (byteRange == ByteRange.UNSATISFIABLE) {
+                return Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .header("Content-Range", "bytes */" + size).build();
+            }
+
+            long offset = byteRange == null ? 0 : byteRange.start();
+            long length = byteRange == null ? size : byteRange.length();
+            StreamingOutput body = output -> {
+                try (InputStream in = minioService.downloadFile(objectName, offset, length)) {
+                    in.transferTo(output);
+                }
+            };
+            response = byteRange == null
+                    ? Response.status(Response.Status.OK)
+                    : Response.status(Response.Status.PARTIAL_CONTENT).header("Content-Range", byteRange.contentRange(size));
+            response.entity(body)
+                    .type(codec == ArchiveCodec.NONE ? stat.contentType() : "text/csv")
+                    .header("Content-Encoding", codec.contentEncoding())
+                    .header(HttpHeaders.CONTENT_LENGTH, length)
+                    .header("Accept-Ranges", "bytes");
+        }
+        if (codec != ArchiveCodec.NONE) response.header(HttpHeaders.VARY, "Accept-Encoding");
+        return response
+                .header("Content-Disposition", "attachment; filename=\"" + downloadName(operation) + "\"")
+                .tag(etag)
+                .lastModified(lastModified)
+                .build();
+    }
+
+    // Ссылка для скачивания напрямую из MinIO: большие файлы не проходят через сервер приложений
+    @GET
+    @Path("/{id}/file/url")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getFileUrl(@PathParam("id") Long id, @QueryParam("username") String username) {
+        ImportOperation operation = historyRepository.findById(id);
+        Response denied = checkAccess(operation, id, username);
+        if (denied != null) return denied;
+
+        ZonedDateTime expiresAt = ZonedDateTime.now().plusSeconds(StorageSettings.presignExpirySeconds());
+        // MinIO отдает объект как есть, поэтому сжатый файл скачивается с расширением кодека
+        String fileName = downloadName(operation) + ArchiveCodec.orNone(operation.getArchiveCodec()).extension();
+        String url = minioService.presignedDownloadUrl(operation.getMinioObjectName(), fileName);
+        PresignedUrlDTO dto = PresignedUrlDTO.builder().url(url).expiresAt(expiresAt).build();
+        return Response.status(Response.Status.OK).entity(dto).build();
+    }
+
+    // Файл доступен администратору и автору импорта
+    private Response checkAccess(ImportOperation operation, Long id, String username) {
+        if (operation == null || operation.getMinioObjectName() == null) {
+            return Response.status(Response.Status.NOT_FOUND).entity("File of import " + id + " not found").build();
+        }
+        User currentUser = userRepository.findByUsername(username).orElse(null);
+        if (currentUser == null) {
+            return Response.status(Response.Status.FORBIDDEN).build();
+        }
+        boolean admin = currentUser.isAdmin() || "admin".equals(currentUser.getUsername());
+        if (!admin && !currentUser.getId().equals(operation.getUser().getId())) {
+            return Response.status(Response.Status.FORBIDDEN).build();
+        }
+        return null;
+    }
+
+    // Принимает ли клиент кодировку: токен есть в Accept-Encoding и не запрещен через q=0
+    private boolean accepts(String acceptEncoding, String encoding) {
+        if (acceptEncoding == null) return false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            if (!tokens[0].trim().equalsIgnoreCase(encoding)) continue;
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].replace(" ", "");
+                if (param.matches("q=0(\\.0*)?")) return false;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    // If-Range содержит либо ETag, либо дату; слабый ETag диапазон не разрешает
+    private boolean ifRangeMatches(String ifRange, EntityTag etag, Date lastModified) {
+        if (ifRange == null) return true;
+        String value = ifRange.trim();
+        if (value.startsWith("\"")) return value.equals("\"" + etag.getValue() + "\"");
+        if (value.startsWith("W/")) return false;
+        try {
+            ZonedDateTime date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return date.toInstant().getEpochSecond() == lastModified.toInstant().getEpochSecond();
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private String downloadName(ImportOperation operation) {
+        return "import_" + operation.getId() + ".csv";
+    }
+}
@@ -0,0 +1,80 @@
+package organization.resource;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import organization.dto.ImportJobStatusDTO;
+import organization.entity.ImportOperation;
+import organization.repository.ImportOperationRepository;
+import organization.service.ImportJobService;
+
+import java.util.Map;
+
+// Статус фоновых импортов: клиент опрашивает GET /import-jobs/{id} после загрузки
+@Path("/import-jobs")
+public class ImportJobResource {
+
+    @Inject
+    private ImportOperationRepository historyRepository;
+
+    @Inject
+    private ImportJobService importJobService;
+
+    @GET
+    @Path("/{id}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getStatus(@PathParam("id") Long id) {
+        ImportOperation operation = historyRepository.findById(id);
+        if (operation == null) {
+            return Response.status(Response.Status.NOT_FOUND).entity("Import " + id + " not found").build();
+        }
+
+        ImportJobStatusDTO dto = ImportJobStatusDTO.builder()
+                .id(operation.getId())
+                .status(operation.getStatus().name())
+                .fileName(operation.getFileName())
+                .mode(operation.getMode() == null ? null : operation.getMode().name())
+                .decoder(operation.getDecoder() == null ? null : operation.getDecoder().name())
+                .conflictPolicy(operation.getConflictPolicy() == null ? null : operation.getConflictPolicy().name())
+                .contentSha256(operation.getContentSha256())
+                .lastCommittedRow(operation.getLastCommittedRow())
+                .rowsParsed(operation.getRowsParsed())
+                .rowsPersisted(operation.getRowsPersisted())
+                .addedObjectsCount(operation.getAddedObjectsCount())
+                .startTime(operation.getStartTime())
+                .endTime(operation.getEndTime())
+                .errorMessage(operation.getErrorMessage())
+                .build();
+        return Response.status(Response.Status.OK).entity(dto).build();
+    }
+
+    // Продолжение прерванного импорта CHUNKED с последней закоммиченной строки
+    @POST
+    @Path("/{id}/resume")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response resume(@PathParam("id") Long id) {
+        ImportOperation operation = historyRepository.findById(id);
+        if (operation == null) {
+            return Response.status(Response.Status.NOT_FOUND).entity("Import " + id + " not found").build();
+        }
+        if (!importJobService.isResumable(operation)) {
+            return Response.status(Response.Status.CONFLICT).entity("Import " + id + " cannot be resumed").build();
+        }
+        importJobService.resume(operation);
+        return Response.status(Response.Status.ACCEPTED).build();
+    }
+
+    // Загрузка пула: сколько импортов выполняется и сколько ждет
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getPoolState() {
+        return Response.status(Response.Status.OK).entity(Map.of(
+                "active", importJobService.getActiveCount(),
+                "queued", importJobService.getQueuedCount())).build();
+    }
+}
@@ -0,0 +1,20 @@
+package organization.resource;
+
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Response;
+import organization.metrics.AppMetrics;
+
+// Метрики приложения в текстовом формате Prometheus (scrape target: /api/metrics)
+@Path("/metrics")
+public class MetricsResource {
+
+    private static final String PROMETHEUS_TEXT = "text/plain; version=0.0.4; charset=utf-8";
+
+    @GET
+    @Produces(PROMETHEUS_TEXT)
+    public Response scrape() {
+        return Response.status(Response.Status.OK).entity(AppMetrics.scrape()).build();
+    }
+}
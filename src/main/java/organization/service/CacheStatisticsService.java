@@ -0,0 +1,105 @@
+package organization.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.persistence.annotations.CacheType;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.identitymaps.IdentityMap;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.jpa.JpaHelper;
+import organization.cache.ClusterCacheCoordinator;
+import organization.config.EntityCacheConfig;
+import organization.config.EntityCacheCustomizer;
+import organization.config.EntityManagerProducer;
+import organization.dto.CacheStatisticsDTO;
+import organization.metrics.CacheStatistics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+// Статистика и настройки L2-кэша для REST и страницы администратора: счетчики, размер identity map, конфигурация
+@ApplicationScoped
+public class CacheStatisticsService {
+
+    @Inject
+    private EntityManagerProducer emProducer;
+
+    @Inject
+    private ClusterCacheCoordinator clusterCache;
+
+    public List<CacheStatisticsDTO> getStatistics() {
+        List<CacheStatisticsDTO> result = new ArrayList<>();
+        for (Map.Entry<Class<?>, CacheStatistics.Counters> entry : CacheStatistics.all().entrySet()) {
+            CacheStatistics.Counters counters = entry.getValue();
+            long hits = counters.getHits();
+            long misses = counters.getMisses();
+            ClassDescriptor descriptor = session().getDescriptor(entry.getKey());
+            EntityCacheConfig config = EntityCacheCustomizer.current(entry.getKey());
+
+            result.add(CacheStatisticsDTO.builder()
+                    .entity(entry.getKey().getSimpleName())
+                    .hits(hits)
+                    .misses(misses)
+                    .hitRatio(hits + misses == 0 ? 0 : (double) hits / (hits + misses))
+                    .evictions(counters.getEvictions())
+                    .size(cacheSize(descriptor))
+                    .maxSize(descriptor == null ? 0 : descriptor.getIdentityMapSize())
+                    .type(config == null ? null : config.getType().name())
+                    .expiryMillis(config == null ? 0 : config.getExpiryMillis())
+                    .isolation(config == null ? null : config.getIsolation().name())
+                    .build());
+        }
+        result.sort(Comparator.comparing(CacheStatisticsDTO::getEntity));
+        return result;
+    }
+
+    // Очистка всего L2-кэша (на всех узлах кластера); вытесненные объекты учитываются в статистике
+    public void clearAll() {
+        for (Class<?> type : CacheStatistics.all().keySet()) {
+            CacheStatistics.evicted(type, cacheSize(session().getDescriptor(type)));
+        }
+        emProducer.clearAllCaches();
+        clusterCache.evictAllClusterWide();
+    }
+
+    /**
+     * Меняет тип, размер и время жизни кэша сущности на этом узле без перезапуска.
+     * Identity map класса создается заново, поэтому ее содержимое сбрасывается (учитывается как вытеснение).
+     * Изоляция кэша задается только при старте.
+     */
+    public EntityCacheConfig reconfigure(String entity, CacheType type, int size, long expiryMillis) {
+        if (size < 0 || expiryMillis < 0) {
+            throw new IllegalArgumentException("Cache size and expiry must not be negative");
+        }
+        ClassDescriptor descriptor = findDescriptor(entity);
+        EntityCacheConfig current = EntityCacheCustomizer.current(descriptor.getJavaClass());
+        EntityCacheConfig config = new EntityCacheConfig(type, size, expiryMillis, current.getIsolation());
+
+        int dropped = cacheSize(descriptor);
+        EntityCacheCustomizer.apply(descriptor, config);
+        session().getIdentityMapAccessor().initializeIdentityMap(descriptor.getJavaClass());
+        CacheStatistics.evicted(descriptor.getJavaClass(), dropped);
+        return config;
+    }
+
+    private ClassDescriptor findDescriptor(String entity) {
+        for (Class<?> type : session().getDescriptors().keySet()) {
+            if (type.getSimpleName().equals(entity) && EntityCacheCustomizer.current(type) != null) {
+                return session().getDescriptor(type);
+            }
+        }
+        throw new IllegalArgumentException("No configurable cache for entity " + entity);
+    }
+
+    private int cacheSize(ClassDescriptor descriptor) {
+        if (descriptor == null) return 0;
+        IdentityMap map = session().getIdentityMapAccessorInstance().getIdentityMap(descriptor, true);
+        return map == null ? 0 : map.getSize();
+    }
+
+    private AbstractSession session() {
+        return (AbstractSession) JpaHelper.getServerSession(emProducer.getEmf());
+    }
+}
@@ -0,0 +1,180 @@
+package organization.service;
+
+import organization.csv.CsvModelDecoder;
+import organization.csv.CsvRecordReader;
+import organization.dto.CsvImportModel;
+import organization.entity.Organization;
+import organization.mapper.OrganizationMapper;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Конвейер разбора CSV для импорта.
+ * <ul>
+ *   <li>читатель (отдельный поток) режет файл на пачки сырых записей (одна строка на запись);</li>
+ *   <li>пачки параллельно декодируются в CsvImportModel выбранным {@link CsvModelDecoder},
+ *   маппятся и валидируются на parseExecutor;</li>
+ *   <li>вызывающий поток (писатель, владеет транзакцией) забирает их через {@link #next()} строго в порядке файла.</li>
+ * </ul>
+ * Очередь пачек ограничена maxInFlight: если писатель отстает, читатель ждет, поэтому память не растет
+ * с размером файла.
+ */
+public class CsvImportPipeline implements AutoCloseable {
+
+    // Маркер конца файла в очереди пачек
+    private static final Future<List<ImportRow>> END = CompletableFuture.completedFuture(null);
+
+    private final CsvRecordReader csv;
+    private final CsvModelDecoder decoder;
+    private final Consumer<Organization> validator;
+    private final ExecutorService parseExecutor;
+    private final long skipRows;
+    private final int batchSize;
+    private final BlockingQueue<Future<List<ImportRow>>> batches;
+    private final Future<?> readerTask;
+
+    private volatile boolean closed = false;
+    private volatile long recordCount = 0;
+    private boolean finished = false;
+
+    /**
+     * @param source        CSV с заголовком; не закрывается конвейером
+     * @param skipRows      сколько первых записей пропустить (продолжение импорта)
+     * @param validator     проверка организации, вызывается в потоках parseExecutor
+     */
+    public CsvImportPipeline(Reader source, CsvModelDecoder decoder, long skipRows, int batchSize, int maxInFlight,
+                             Consumer<Organization> validator,
+                             ExecutorService readerExecutor, ExecutorService parseExecutor) {
+        this.csv = new CsvRecordReader(source);
+        this.decoder = decoder;
+        this.validator = validator;
+        this.parseExecutor = parseExecutor;
+        this.skipRows = skipRows;
+        this.batchSize = batchSize;
+        this.batches = new ArrayBlockingQueue<>(maxInFlight);
+
+        // Заголовок читаем сразу: без него нельзя разбирать записи
+        try {
+            String header = csv.next();
+            if (header == null) throw new IllegalArgumentException("Empty file");
+            decoder.readHeader(header);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid CSV header: " + e.getMessage(), e);
+        }
+
+        this.readerTask = readerExecutor.submit(this::readBatches);
+    }
+
+    /**
+     * Следующая пачка разобранных строк в порядке файла или null, если файл закончился.
+     * Ошибка разбора или валидации пробрасывается здесь, в потоке писателя.
+     */
+    public List<ImportRow> next() {
+        if (finished) return null;
+        try {
+            Future<List<ImportRow>> batch = batches.take();
+            if (batch == END) {
+                finished = true;
+                return null;
+            }
+            return batch.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new RuntimeException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Import interrupted", e);
+        }
+    }
+
+    // Число записей в файле (без заголовка); окончательное после того, как next() вернул null
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        // Освобождаем очередь, чтобы читатель не висел на put, и ждем его: дальше поток читает performImport
+        for (Future<List<ImportRow>> batch : batches) {
+            batch.cancel(false);
+        }
+        batches.clear();
+        try {
+            readerTask.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Ошибка чтения уже передана писателю через очередь
+        }
+    }
+
+    private Void readBatches() throws InterruptedException {
+        long row = 0;
+        try {
+            List<String> records = new ArrayList<>(batchSize);
+            long firstRow = 0;
+            String record;
+            while (!closed && (record = csv.next()) != null) {
+                row++;
+                if (row <= skipRows) continue;
+                if (records.isEmpty()) firstRow = row;
+                records.add(record);
+                if (records.size() == batchSize) {
+                    submit(firstRow, records);
+                    records = new ArrayList<>(batchSize);
+                }
+            }
+            if (!records.isEmpty()) submit(firstRow, records);
+            recordCount = row;
+        } catch (IOException | RuntimeException e) {
+            enqueue(CompletableFuture.failedFuture(
+                    new RuntimeException("Строка " + (row + 1) + ": ошибка чтения CSV: " + e.getMessage(), e)));
+        } finally {
+            enqueue(END);
+        }
+        return null;
+    }
+
+    private void submit(long firstRow, List<String> records) throws InterruptedException {
+        enqueue(parseExecutor.submit(() -> parse(firstRow, records)));
+    }
+
+    // Back-pressure: ждем места в очереди, пока писатель не закрыл конвейер
+    private void enqueue(Future<List<ImportRow>> batch) throws InterruptedException {
+        while (!batches.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+            if (closed) {
+                batch.cancel(false);
+                return;
+            }
+        }
+    }
+
+    private List<ImportRow> parse(long firstRow, List<String> records) {
+        List<ImportRow> rows = new ArrayList<>(records.size());
+        long rowNumber = firstRow;
+        for (String record : records) {
+            try {
+                CsvImportModel model = decoder.decode(record);
+                Organization org = OrganizationMapper.toOrganization(model);
+                validator.accept(org);
+                rows.add(new ImportRow(rowNumber, org));
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Строка " + rowNumber + ": " + e.getMessage(), e);
+            }
+            rowNumber++;
+        }
+        return rows;
+    }
+}
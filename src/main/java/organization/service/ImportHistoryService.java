@@ -1,57 +1,133 @@
 package organization.service;
 
-import jakarta.ejb.*;
+import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
-import lombok.ToString;
+import jakarta.persistence.EntityTransaction;
+import organization.config.EntityManagerProducer;
+import organization.entity.ArchiveCodec;
+import organization.entity.ImportConflictPolicy;
+import organization.entity.ImportDecoder;
+import organization.entity.ImportMode;
 import organization.entity.ImportOperation;
 import organization.entity.ImportStatus;
 import organization.entity.User;
 
 import java.time.ZonedDateTime;
+import java.util.function.Consumer;
 
-@Stateless
-@TransactionManagement(TransactionManagementType.CONTAINER)
+/**
+ * Записи журнала импорта. Каждая операция выполняется в собственной короткой транзакции
+ * на отдельном EntityManager: запись сразу видна другим запросам (прогресс фонового импорта)
+ * и сохраняется, даже если транзакция самого импорта будет откачена.
+ */
+@ApplicationScoped
 public class ImportHistoryService {
 
     @Inject
-    private EntityManager em;
+    private EntityManagerProducer emProducer;
 
-    // REQUIRES_NEW: Останавливает текущую транзакцию, открывает новую,
-    // выполняет запись, коммитит её. Если потом вылетит ошибка в импорте,
-    // эта запись уже будет в БД.
-    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
-    public ImportOperation createLogEntry(User user, ImportStatus status) {
+    public ImportOperation createLogEntry(User user, ImportStatus status, String fileName,
+                                          ImportMode mode, ImportDecoder decoder,
+                                          ImportConflictPolicy conflictPolicy, String contentSha256) {
         ImportOperation logEntry = new ImportOperation();
+        inNewTransaction(em -> {
+            // Ссылка на пользователя, чтобы он был в контексте
+            User managedUser = em.getReference(User.class, user.getId());
+            logEntry.setUser(managedUser);
 
-        // Мерджим пользователя, чтобы он был в контексте
-        User managedUser = em.getReference(User.class, user.getId());
-        logEntry.setUser(managedUser);
+            logEntry.setStatus(status);
+            logEntry.setStartTime(ZonedDateTime.now());
+            logEntry.setFileName(fileName);
+            logEntry.setMode(mode);
+            logEntry.setDecoder(decoder);
+            logEntry.setConflictPolicy(conflictPolicy);
+            logEntry.setContentSha256(contentSha256);
+            logEntry.setLastCommittedRow(0L);
+            logEntry.setRowsParsed(0L);
+            logEntry.setRowsPersisted(0L);
 
-        logEntry.setStatus(status);
-        logEntry.setStartTime(ZonedDateTime.now());
-
-        em.persist(logEntry);
-        em.flush(); // Принудительно генерируем ID
+            em.persist(logEntry);
+            em.flush(); // Принудительно генерируем ID
+        });
         return logEntry;
     }
 
-    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public void markInProgress(Long logEntryId, String minioObjectName, ArchiveCodec archiveCodec) {
+        inNewTransaction(em -> {
+            ImportOperation managedLog = em.find(ImportOperation.class, logEntryId);
+            if (managedLog != null) {
+                managedLog.setStatus(ImportStatus.IN_PROGRESS);
+                managedLog.setMinioObjectName(minioObjectName);
+                managedLog.setArchiveCodec(archiveCodec);
+            }
+        });
+    }
+
+    // Файл не попал в MinIO: запись журнала больше не ссылается на объект
+    public void clearArchive(Long logEntryId) {
+        inNewTransaction(em -> {
+            ImportOperation managedLog = em.find(ImportOperation.class, logEntryId);
+            if (managedLog != null) {
+                managedLog.setMinioObjectName(null);
+                managedLog.setArchiveCodec(null);
+            }
+        });
+    }
+
+    // Повторная постановка в очередь прерванного импорта (режим CHUNKED)
+    public void markQueued(Long logEntryId) {
+        inNewTransaction(em -> {
+            ImportOperation managedLog = em.find(ImportOperation.class, logEntryId);
+            if (managedLog != null) {
+                managedLog.setStatus(ImportStatus.QUEUED);
+                managedLog.setEndTime(null);
+                managedLog.setErrorMessage(null);
+            }
+        });
+    }
+
+    // Вызывается после каждой записанной пачки, поэтому без загрузки сущности
+    public void updateProgress(Long logEntryId, long rowsParsed, long rowsPersisted) {
+        inNewTransaction(em -> em.createQuery(
+                        "UPDATE ImportOperation i SET i.rowsParsed = :parsed, i.rowsPersisted = :persisted WHERE i.id = :id")
+                .setParameter("parsed", rowsParsed)
+                .setParameter("persisted", rowsPersisted)
+                .setParameter("id", logEntryId)
+                .executeUpdate());
+    }
+
     public void updateLogEntry(Long logEntryId, ImportStatus status, Integer count, String errorMessage) {
         if (logEntryId == null) return;
 
-        ImportOperation managedLog = em.find(ImportOperation.class, logEntryId);
-        if (managedLog != null) {
-            managedLog.setStatus(status);
-            managedLog.setEndTime(ZonedDateTime.now());
-            managedLog.setAddedObjectsCount(count);
+        inNewTransaction(em -> {
+            ImportOperation managedLog = em.find(ImportOperation.class, logEntryId);
+            if (managedLog != null) {
+                managedLog.setStatus(status);
+                managedLog.setEndTime(ZonedDateTime.now());
+                managedLog.setAddedObjectsCount(count);
 
-            if (errorMessage != null && errorMessage.length() > 4000) {
-                errorMessage = errorMessage.substring(0, 4000);
+                String message = errorMessage;
+                if (message != null && message.length() > 4000) {
+                    message = message.substring(0, 4000);
+                }
+                managedLog.setErrorMessage(message);
             }
-            managedLog.setErrorMessage(errorMessage);
+        });
+    }
 
+    private void inNewTransaction(Consumer<EntityManager> action) {
+        EntityManager em = emProducer.getEmf().createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        try {
+            tx.begin();
+            action.accept(em);
+            tx.commit();
+        } catch (RuntimeException e) {
+            if (tx.isActive()) tx.rollback();
+            throw e;
+        } finally {
+            em.close();
         }
     }
-}
\ No newline at end of file
+}
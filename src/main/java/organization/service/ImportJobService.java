@@ -0,0 +1,183 @@
+package organization.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedThreadFactory;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import organization.config.ImportSettings;
+import organization.entity.ImportConflictPolicy;
+import organization.entity.ImportDecoder;
+import organization.entity.ImportMode;
+import organization.entity.ImportOperation;
+import organization.entity.ImportStatus;
+import organization.entity.User;
+import organization.metrics.AppMetrics;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Фоновые импорты. Загрузка только сохраняет файл во временный каталог и ставит задачу
+ * в очередь, запрос сразу возвращает ID операции; статус и прогресс читаются из журнала.
+ * Пул ограничен (workers + очередь), при переполнении загрузка отклоняется, а не копится в памяти.
+ */
+@ApplicationScoped
+public class ImportJobService {
+
+    @Resource
+    private ManagedThreadFactory threadFactory;
+
+    @Inject
+    private ObjectImportService importService;
+
+    @Inject
+    private ImportHistoryService historyService;
+
+    private static final Logger LOG = Logger.getLogger(ImportJobService.class.getName());
+
+    private ThreadPoolExecutor pool;
+
+    @PostConstruct
+    public void init() {
+        int workers = ImportSettings.workers();
+        pool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(ImportSettings.queueCapacity()), threadFactory);
+        AppMetrics.bindImportPool(pool);
+        LOG.info("[IMPORT] Job pool started: workers=" + workers
+                + ", queue=" + ImportSettings.queueCapacity());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(30, TimeUnit.SECONDS)) pool.shutdownNow();
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Ставит импорт в очередь и возвращает ID записи журнала (статус QUEUED).
+     * Поток загрузки нельзя читать после конца запроса, поэтому он сначала копируется во временный файл;
+     * в том же проходе считается SHA-256, по которому импорт находит повторные загрузки.
+     */
+    public Long submit(InputStream content, User user, String fileName,
+                       ImportMode mode, ImportDecoder decoder,
+                       ImportConflictPolicy conflictPolicy) throws IOException {
+        Path spool = Files.createTempFile("import-", ".csv");
+        MessageDigest digest = sha256();
+        try {
+            // Поток запроса не закрываем: им владеет вызывающий код
+            Files.copy(new DigestInputStream(content, digest), spool, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(spool);
+            throw e;
+        }
+        String contentSha256 = HexFormat.of().formatHex(digest.digest());
+
+        ImportOperation operation = historyService.createLogEntry(
+                user, ImportStatus.QUEUED, fileName, mode, decoder, conflictPolicy, contentSha256);
+        Long operationId = operation.getId();
+        try {
+            pool.execute(() -> runImport(spool, operationId, fileName, mode, decoder, conflictPolicy, contentSha256));
+        } catch (RejectedExecutionException e) {
+            deleteQuietly(spool);
+            String message = "Очередь импорта переполнена (" + ImportSettings.queueCapacity() + "), попробуйте позже.";
+            historyService.updateLogEntry(operationId, ImportStatus.FAILURE, 0, message);
+            throw new IllegalStateException(message, e);
+        }
+        LOG.info("[IMPORT] Job #" + operationId + " queued: " + fileName + " (" + mode + ", " + decoder + ", " + conflictPolicy + ")");
+        return operationId;
+    }
+
+    // Прерванный импорт CHUNKED с сохраненным в MinIO файлом можно продолжить
+    public boolean isResumable(ImportOperation operation) {
+        return operation.getStatus() == ImportStatus.FAILURE
+                && operation.getMode() == ImportMode.CHUNKED
+                && operation.getMinioObjectName() != null;
+    }
+
+    /**
+     * Ставит в очередь продолжение прерванного импорта с последней закоммиченной строки.
+     * Файл берется из MinIO, повторная загрузка не нужна.
+     */
+    public void resume(ImportOperation operation) {
+        if (!isResumable(operation)) {
+            throw new IllegalStateException("Import " + operation.getId() + " cannot be resumed");
+        }
+        Long operationId = operation.getId();
+        historyService.markQueued(operationId);
+        try {
+            pool.execute(() -> runResume(operationId));
+        } catch (RejectedExecutionException e) {
+            String message = "Очередь импорта переполнена (" + ImportSettings.queueCapacity() + "), попробуйте позже.";
+            historyService.updateLogEntry(operationId, ImportStatus.FAILURE, operation.getAddedObjectsCount(), message);
+            throw new IllegalStateException(message, e);
+        }
+        LOG.info("[IMPORT] Job #" + operationId + " queued for resume after row " + operation.getLastCommittedRow());
+    }
+
+    public int getActiveCount() {
+        return pool.getActiveCount();
+    }
+
+    public int getQueuedCount() {
+        return pool.getQueue().size();
+    }
+
+    private void runImport(Path spool, Long operationId, String fileName, ImportMode mode, ImportDecoder decoder,
+                           ImportConflictPolicy conflictPolicy, String contentSha256) {
+        try {
+            importService.performImport(spool, operationId, fileName, mode, decoder, conflictPolicy, contentSha256);
+            LOG.info("[IMPORT] Job #" + operationId + " finished.");
+        } catch (Exception e) {
+            // Статус FAILURE уже записан в журнал внутри performImport
+            LOG.warning("[IMPORT] Job #" + operationId + " failed: " + e.getMessage());
+        } finally {
+            deleteQuietly(spool);
+        }
+    }
+
+    private void runResume(Long operationId) {
+        try {
+            importService.resumeImport(operationId);
+            LOG.info("[IMPORT] Job #" + operationId + " resumed and finished.");
+        } catch (Exception e) {
+            // Новая точка продолжения уже записана в журнал внутри resumeImport
+            LOG.warning("[IMPORT] Job #" + operationId + " failed again: " + e.getMessage());
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 обязан поддерживать любой JRE
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void deleteQuietly(Path spool) {
+        try {
+            Files.deleteIfExists(spool);
+        } catch (IOException e) {
+            LOG.warning("[IMPORT] Cannot delete temp file " + spool + ": " + e.getMessage());
+        }
+    }
+}
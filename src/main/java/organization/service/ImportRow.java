@@ -0,0 +1,17 @@
+package organization.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import organization.entity.Organization;
+
+// Организация из CSV вместе с номером строки файла (для сообщений об ошибках)
+@Getter
+@AllArgsConstructor
+public class ImportRow {
+    private final long rowNumber;
+    private final Organization organization;
+
+    public String uniquenessKey() {
+        return OrganizationUniquenessValidator.key(organization.getName(), organization.getType());
+    }
+}
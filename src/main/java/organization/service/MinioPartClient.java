@@ -0,0 +1,37 @@
+package organization.service;
+
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.Multimap;
+import io.minio.MinioAsyncClient;
+import io.minio.messages.Part;
+
+/**
+ * Низкоуровневый multipart upload. MinioClient делит поток на части сам, но грузит их
+ * по одной; здесь методы S3Base открыты, чтобы части можно было отправлять параллельно.
+ */
+class MinioPartClient extends MinioAsyncClient {
+
+    MinioPartClient(MinioAsyncClient client) {
+        super(client);
+    }
+
+    String createMultipartUpload(String bucket, String objectName, String contentType) throws Exception {
+        Multimap<String, String> headers = ImmutableMultimap.of("Content-Type", contentType);
+        return createMultipartUploadAsync(bucket, null, objectName, headers, null)
+                .join().result().uploadId();
+    }
+
+    // Возвращает ETag загруженной части
+    String uploadPart(String bucket, String objectName, String uploadId, int partNumber, byte[] data) throws Exception {
+        return uploadPartAsync(bucket, null, objectName, data, data.length, uploadId, partNumber, null, null)
+                .join().etag();
+    }
+
+    void completeMultipartUpload(String bucket, String objectName, String uploadId, Part[] parts) throws Exception {
+        completeMultipartUploadAsync(bucket, null, objectName, uploadId, parts, null, null).join();
+    }
+
+    void abortMultipartUpload(String bucket, String objectName, String uploadId) throws Exception {
+        abortMultipartUploadAsync(bucket, null, objectName, uploadId, null, null).join();
+    }
+}
@@ -1,9 +1,38 @@
 package organization.service;
 
 import io.minio.*;
+import io.minio.errors.ErrorResponseException;
+import io.minio.http.Method;
+import io.minio.messages.Part;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedThreadFactory;
 import jakarta.enterprise.context.ApplicationScoped;
+import organization.config.StorageSettings;
+import organization.entity.ArchiveCodec;
+import organization.metrics.AppMetrics;
+import organization.metrics.MinioRequestEvent;
+
+import java.io.EOFException;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Logger;
 
 @ApplicationScoped
 public class MinioService {
@@ -12,16 +41,39 @@ public class MinioService {
     // Установить в true в UI или коде для имитации сбоя при загрузке
     public static boolean SIMULATE_UPLOAD_FAILURE = false;
 
+    private static final Logger LOG = Logger.getLogger(MinioService.class.getName());
+
     private MinioClient minioClient;
+    // Только подписывает URL для клиентов, запросов к MinIO не делает
+    private MinioClient presignClient;
+    // Параллельная загрузка частей больших файлов
+    private MinioPartClient partClient;
     private final String BUCKET_NAME = "lab3-imports";
 
+    @Resource
+    private ManagedThreadFactory threadFactory;
+
+    // Общий для всех загрузок: ограничивает и число соединений, и память под буферы частей
+    private ExecutorService uploadPool;
+
     @PostConstruct
     public void init() {
         // Настройки MinIO
         minioClient = MinioClient.builder()
-                .endpoint("http://localhost:9000")
+                .endpoint(StorageSettings.endpoint())
+                .credentials("minioadmin", "minioadmin")
+                .build();
+        partClient = new MinioPartClient(MinioAsyncClient.builder()
+                .endpoint(StorageSettings.endpoint())
                 .credentials("minioadmin", "minioadmin")
+                .build());
+        // Регион задан явно, иначе клиент запросит его у MinIO по публичному адресу
+        presignClient = MinioClient.builder()
+                .endpoint(StorageSettings.publicEndpoint())
+                .credentials("minioadmin", "minioadmin")
+                .region("us-east-1")
                 .build();
+        uploadPool = Executors.newFixedThreadPool(StorageSettings.uploadThreads(), threadFactory);
 
         try {
             boolean found = minioClient.bucketExists(BucketExistsArgs.builder().bucket(BUCKET_NAME).build());
@@ -33,59 +85,302 @@ public class MinioService {
         }
     }
 
-    public void uploadFile(String objectName, InputStream stream, String contentType) {
-        // --- ЛОГИРОВАНИЕ НАЧАЛА ---
-        System.out.println("=======================================================");
-        System.out.println("[2PC - MinIO] Prepare Phase: Attempting to upload file " + objectName);
+    @PreDestroy
+    public void shutdown() {
+        uploadPool.shutdownNow();
+    }
 
-        // --- ТОЧКА ОТКАЗА A: Сбой загрузки (Отказ хранилища) ---
-        if (SIMULATE_UPLOAD_FAILURE) {
-            // Флаг можно сбросить, чтобы не мешал последующим тестам
-            SIMULATE_UPLOAD_FAILURE = false;
-            throw new RuntimeException("SIMULATION: MinIO upload failed (Отказ файлового хранилища)!");
+    /**
+     * Загружает файл известного размера. Файл не больше {@link StorageSettings#partSize()} уходит
+     * одним PUT, больший — multipart upload, части которого читаются из файла и загружаются параллельно.
+     */
+    public void uploadFile(String objectName, Path file, String contentType) {
+        uploadFile(objectName, file, contentType, () -> false);
+    }
+
+    /**
+     * То же с отменой: когда cancelled вернет true, оставшиеся части не отправляются и multipart upload
+     * отменяется, метод завершается с CancellationException в причине. Загруженный одним PUT файл не отменяется.
+     */
+    public void uploadFile(String objectName, Path file, String contentType, BooleanSupplier cancelled) {
+        long size;
+        try {
+            size = Files.size(file);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to upload to MinIO", e);
+        }
+        if (cancelled.getAsBoolean()) throw new CancellationException("Upload cancelled: " + objectName);
+        if (size <= StorageSettings.partSize()) {
+            try (InputStream stream = Files.newInputStream(file)) {
+                uploadFile(objectName, stream, size, contentType);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to upload to MinIO", e);
+            }
+            return;
+        }
+
+        checkSimulatedFailure(objectName);
+        MinioRequestEvent request = MinioRequestEvent.start("upload", objectName);
+        try {
+            uploadParts(objectName, file, size, contentType, cancelled);
+            request.finish(true, size);
+            LOG.fine("[2PC - MinIO] Prepare Phase: File uploaded successfully (MinIO OK).");
+        } catch (Exception e) {
+            request.finish(false, size);
+            throw new RuntimeException("Failed to upload to MinIO", e);
         }
+    }
+
+    /**
+     * Загружает файл импорта со сжатием codec. Сжатый файл пишется во временный файл, чтобы его размер
+     * был известен и большие архивы по-прежнему грузились параллельными частями.
+     */
+    public void uploadArchive(String objectName, Path file, ArchiveCodec codec, BooleanSupplier cancelled) {
+        if (codec == ArchiveCodec.NONE) {
+            uploadFile(objectName, file, "text/csv", cancelled);
+            return;
+        }
+        Path packed = null;
+        try {
+            packed = Files.createTempFile("archive-", codec.extension());
+            compress(file, packed, codec, cancelled);
+            uploadFile(objectName, packed, codec.contentType("text/csv"), cancelled);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to compress import file", e);
+        } finally {
+            if (packed != null) deleteQuietly(packed);
+        }
+    }
+
+    // Поток файла импорта, уже распакованный
+    public InputStream downloadArchive(String objectName, ArchiveCodec codec) {
+        InputStream stream = downloadFile(objectName);
+        try {
+            return codec.decode(stream);
+        } catch (IOException e) {
+            closeQuietly(stream);
+            throw new RuntimeException("Failed to read compressed MinIO object", e);
+        }
+    }
+
+    private void compress(Path source, Path target, ArchiveCodec codec, BooleanSupplier cancelled) throws IOException {
+        long started = System.nanoTime();
+        try (InputStream in = Files.newInputStream(source);
+             OutputStream out = codec.encode(Files.newOutputStream(target), StorageSettings.compressionLevel())) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                if (cancelled.getAsBoolean()) throw new CancellationException("Upload cancelled: " + target);
+                out.write(buffer, 0, read);
+            }
+        }
+        AppMetrics.recordArchiveCompression(codec.name(), Files.size(source), Files.size(target), System.nanoTime() - started);
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOG.warning("[MinIO] Cannot delete temp file " + file + ": " + e.getMessage());
+        }
+    }
 
+    private void closeQuietly(InputStream stream) {
+        try {
+            stream.close();
+        } catch (IOException e) {
+            // Поток уже не нужен
+        }
+    }
+
+    /**
+     * Загружает поток одним putObject. Размер передается MinIO, если известен (size >= 0):
+     * тогда клиент не буферизует части в памяти; при size = -1 поток режется на части по 10 МБ.
+     */
+    public void uploadFile(String objectName, InputStream stream, long size, String contentType) {
+        checkSimulatedFailure(objectName);
+
+        MinioRequestEvent request = MinioRequestEvent.start("upload", objectName);
         try {
             minioClient.putObject(
                     PutObjectArgs.builder()
                             .bucket(BUCKET_NAME)
                             .object(objectName)
-                            .stream(stream, -1, 10485760)
+                            .stream(stream, size, size < 0 ? 10485760 : -1)
                             .contentType(contentType)
                             .build());
-            // --- ЛОГИРОВАНИЕ УСПЕХА ---
-            System.out.println("[2PC - MinIO] Prepare Phase: File uploaded successfully (MinIO OK).");
-            System.out.println("=======================================================");
+            if (size < 0) request.finish(true);
+            else request.finish(true, size);
+            LOG.fine("[2PC - MinIO] Prepare Phase: File uploaded successfully (MinIO OK).");
         } catch (Exception e) {
+            request.finish(false);
             throw new RuntimeException("Failed to upload to MinIO", e);
         }
     }
 
+    private void checkSimulatedFailure(String objectName) {
+        LOG.fine("[2PC - MinIO] Prepare Phase: Attempting to upload file " + objectName);
+
+        // --- ТОЧКА ОТКАЗА A: Сбой загрузки (Отказ хранилища) ---
+        if (SIMULATE_UPLOAD_FAILURE) {
+            // Флаг можно сбросить, чтобы не мешал последующим тестам
+            SIMULATE_UPLOAD_FAILURE = false;
+            throw new RuntimeException("SIMULATION: MinIO upload failed (Отказ файлового хранилища)!");
+        }
+    }
+
+    // Части читаются из файла уже в потоке пула, поэтому в памяти не больше upload-threads буферов
+    private void uploadParts(String objectName, Path file, long size, String contentType,
+                             BooleanSupplier cancelled) throws Exception {
+        long partSize = StorageSettings.partSize();
+        int partCount = (int) ((size + partSize - 1) / partSize);
+        String uploadId = partClient.createMultipartUpload(BUCKET_NAME, objectName, contentType);
+
+        List<Future<Part>> parts = new ArrayList<>(partCount);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (int i = 0; i < partCount; i++) {
+                int partNumber = i + 1;
+                long offset = i * partSize;
+                int length = (int) Math.min(partSize, size - offset);
+                parts.add(uploadPool.submit(() -> {
+                    if (cancelled.getAsBoolean()) throw new CancellationException("Upload cancelled: " + objectName);
+                    return uploadPart(channel, objectName, uploadId, partNumber, offset, length);
+                }));
+            }
+
+            Part[] uploaded = new Part[partCount];
+            for (int i = 0; i < partCount; i++) {
+                uploaded[i] = parts.get(i).get();
+            }
+            partClient.completeMultipartUpload(BUCKET_NAME, objectName, uploadId, uploaded);
+        } catch (Exception e) {
+            // Незавершенные части занимают место в бакете, пока upload не отменен
+            abortQuietly(objectName, uploadId, parts);
+            if (e instanceof ExecutionException && e.getCause() instanceof Exception) throw (Exception) e.getCause();
+            throw e;
+        }
+    }
+
+    private Part uploadPart(FileChannel channel, String objectName, String uploadId,
+                            int partNumber, long offset, int length) throws Exception {
+        byte[] data = new byte[length];
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new EOFException("File is shorter than expected: " + objectName);
+            }
+        }
+
+        MinioRequestEvent request = MinioRequestEvent.start("upload_part", objectName);
+        try {
+            String etag = partClient.uploadPart(BUCKET_NAME, objectName, uploadId, partNumber, data);
+            request.finish(true, length);
+            return new Part(partNumber, etag);
+        } catch (Exception e) {
+            request.finish(false, length);
+            throw e;
+        }
+    }
+
+    private void abortQuietly(String objectName, String uploadId, List<Future<Part>> parts) {
+        // Ждем уже начатые части: отмена upload во время их загрузки может оставить части в бакете
+        for (Future<Part> part : parts) part.cancel(false);
+        for (Future<Part> part : parts) {
+            try {
+                if (!part.isCancelled()) part.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                // Ошибка части уже привела к отмене всего upload
+            }
+        }
+        try {
+            partClient.abortMultipartUpload(BUCKET_NAME, objectName, uploadId);
+        } catch (Exception e) {
+            LOG.warning("[MinIO] Cannot abort multipart upload " + uploadId + ": " + e.getMessage());
+        }
+    }
+
     public InputStream downloadFile(String objectName) {
-        // ... без изменений
+        return downloadFile(objectName, 0, -1);
+    }
+
+    // Диапазон байт объекта; length = -1 — до конца
+    public InputStream downloadFile(String objectName, long offset, long length) {
+        // Время до получения потока (ответ MinIO), чтение самого тела сюда не входит
+        MinioRequestEvent request = MinioRequestEvent.start("download", objectName);
+        try {
+            GetObjectArgs.Builder args = GetObjectArgs.builder()
+                    .bucket(BUCKET_NAME)
+                    .object(objectName);
+            if (offset > 0) args.offset(offset);
+            if (length >= 0) args.length(length);
+            InputStream stream = minioClient.getObject(args.build());
+            request.finish(true);
+            return stream;
+        } catch (Exception e) {
+            request.finish(false);
+            throw new RuntimeException("Failed to download from MinIO", e);
+        }
+    }
+
+    // Метаданные объекта (размер, ETag, время изменения) без тела; null, если объекта нет
+    public StatObjectResponse statFile(String objectName) {
+        MinioRequestEvent request = MinioRequestEvent.start("stat", objectName);
         try {
-            return minioClient.getObject(
-                    GetObjectArgs.builder()
+            StatObjectResponse stat = minioClient.statObject(
+                    StatObjectArgs.builder()
                             .bucket(BUCKET_NAME)
                             .object(objectName)
                             .build());
+            request.finish(true);
+            return stat;
+        } catch (ErrorResponseException e) {
+            boolean missing = "NoSuchKey".equals(e.errorResponse().code());
+            request.finish(missing);
+            if (missing) return null;
+            throw new RuntimeException("Failed to stat MinIO object", e);
         } catch (Exception e) {
-            throw new RuntimeException("Failed to download from MinIO", e);
+            request.finish(false);
+            throw new RuntimeException("Failed to stat MinIO object", e);
+        }
+    }
+
+    /**
+     * Ссылка на скачивание напрямую из MinIO, в обход сервера приложений.
+     * Действует {@link StorageSettings#presignExpirySeconds()} секунд; fileName попадает в Content-Disposition ответа.
+     */
+    public String presignedDownloadUrl(String objectName, String fileName) {
+        try {
+            return presignClient.getPresignedObjectUrl(
+                    GetPresignedObjectUrlArgs.builder()
+                            .method(Method.GET)
+                            .bucket(BUCKET_NAME)
+                            .object(objectName)
+                            .expiry(StorageSettings.presignExpirySeconds())
+                            .extraQueryParams(Map.of("response-content-disposition",
+                                    "attachment; filename=\"" + fileName + "\""))
+                            .build());
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to presign MinIO URL", e);
         }
     }
 
     public void deleteFile(String objectName) {
-        // --- ЛОГИРОВАНИЕ КОМПЕНСАЦИИ ---
-        System.err.println("[2PC - MinIO] COMPENSATION: Attempting to delete (rollback) file " + objectName);
+        LOG.info("[2PC - MinIO] COMPENSATION: Attempting to delete (rollback) file " + objectName);
+        MinioRequestEvent request = MinioRequestEvent.start("delete", objectName);
         try {
             minioClient.removeObject(
                     RemoveObjectArgs.builder()
                             .bucket(BUCKET_NAME)
                             .object(objectName)
                             .build());
-            System.err.println("[2PC - MinIO] COMPENSATION: File deleted successfully.");
+            request.finish(true);
+            LOG.info("[2PC - MinIO] COMPENSATION: File deleted successfully.");
         } catch (Exception e) {
-            System.err.println("[2PC - MinIO] ERROR: Failed to compensate MinIO transaction: " + e.getMessage());
+            request.finish(false);
+            LOG.warning("[2PC - MinIO] ERROR: Failed to compensate MinIO transaction: " + e.getMessage());
         }
     }
 }
\ No newline at end of file
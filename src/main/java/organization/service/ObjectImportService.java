@@ -1,20 +1,52 @@
 package organization.service;
 
-import com.opencsv.bean.CsvToBeanBuilder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.enterprise.concurrent.ManagedThreadFactory;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
+import jakarta.persistence.Cache;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityTransaction;
-import organization.dto.CsvImportModel;
+import organization.cache.QueryResultCache;
+import organization.config.ImportSettings;
+import organization.config.SchemaIndexMigration;
+import organization.config.StorageSettings;
+import organization.csv.CsvModelDecoder;
 import organization.entity.*;
+import organization.event.OrganizationChangedEvent;
+import organization.exception.UniqueConstraintViolationException;
+import organization.metrics.AppMetrics;
+import organization.metrics.DbTransactionEvent;
+import organization.metrics.ImportPhaseEvent;
+import organization.repository.ImportOperationRepository;
+import organization.repository.OrganizationBatchWriter;
 
-import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
-import java.time.ZonedDateTime;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 @ApplicationScoped
 public class ObjectImportService {
@@ -25,114 +57,486 @@ public class ObjectImportService {
     // Установить в true для имитации сбоя между MinIO upload и DB commit
     public static boolean SIMULATE_MID_LOGIC_FAILURE = false;
 
+    private static final Logger LOG = Logger.getLogger(ObjectImportService.class.getName());
+
+    // Сколько прежних импортов того же файла проверяется в MinIO в поисках сохранившегося архива
+    private static final int MAX_DUPLICATE_CANDIDATES = 10;
+    // Размер пачки для JDBC batch insert; после каждой пачки persistence context очищается
+    private static final int BATCH_SIZE = 1000;
+
     @Inject
     private OrganizationService organizationService;
 
+    @Inject
+    private OrganizationBatchWriter batchWriter;
+
+    @Inject
+    private OrganizationUniquenessValidator uniquenessValidator;
+
     @Inject
     private MinioService minioService;
 
     @Inject
     private EntityManager em;
 
-    public void performImport(byte[] fileContent, User currentUser, String originalFileName) throws Exception {
-        String objectName = UUID.randomUUID() + "_" + originalFileName;
+    @Resource
+    private ManagedExecutorService executor;
 
-        // --- 1. MINIO UPLOAD (Prepare Phase MinIO) ---
-        System.out.println("[2PC - Orchestrator] START: MinIO Upload.");
-        try {
-            minioService.uploadFile(objectName, new ByteArrayInputStream(fileContent), "text/csv");
-        } catch (Exception e) {
-            // Если MinIO упал, тут ловится exception, файл не был загружен.
-            System.err.println("[2PC - Orchestrator] ERROR: MinIO Prepare FAILED. Aborting.");
-            throw new RuntimeException("Ошибка загрузки файла в хранилище. БД не затронута. (MinIO-fail)", e);
-        }
+    @Resource
+    private ManagedThreadFactory threadFactory;
 
-        // --- ТОЧКА ОТКАЗА C: Ошибка в бизнес-логике сервера (MinIO OK, DB NO-BEGIN) ---
-        if (SIMULATE_MID_LOGIC_FAILURE) {
-            SIMULATE_MID_LOGIC_FAILURE = false;
-            System.err.println("[2PC - Orchestrator] SIMULATION: Mid-logic failure triggered (Ошибка в бизнес-логике).");
-            // Искусственный сбой. MinIO-файл уже загружен, его нужно удалить в секции catch.
-            throw new RuntimeException("SIMULATION: Mid-logic failure forced.");
-        }
+    // CPU-bound разбор и валидация CSV, общий для всех импортов
+    private ExecutorService parsePool;
+
+    @Inject
+    private Event<OrganizationChangedEvent> changes;
+
+    @Inject
+    private QueryResultCache queryCache;
+
+    @Inject
+    private ImportHistoryService historyService;
+
+    @Inject
+    private ImportOperationRepository importOperationRepository;
+
+    @PostConstruct
+    public void init() {
+        parsePool = Executors.newFixedThreadPool(ImportSettings.parseThreads(), threadFactory);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        parsePool.shutdownNow();
+    }
+
+    /**
+     * Потоковый импорт: файл параллельно загружается в MinIO (размер известен, большие файлы —
+     * multipart upload) и читается парсером CSV, организации сохраняются пачками. Память не зависит от размера файла.
+     * Commit БД выполняется только после успешной загрузки; сбой загрузки прерывает импорт после текущей пачки,
+     * а откат БД отменяет недогруженный файл (кроме режима CHUNKED, где файл нужен для продолжения).
+     * Файл с тем же SHA-256, что у прежнего успешного импорта, повторно не загружается: используется его архив,
+     * а импорт в БД выполняется, пропускается или отклоняется по {@link ImportSettings#duplicatePolicy()}.
+     * Запись журнала operationId создается заранее (см. ImportJobService); прогресс пишется в нее
+     * отдельными транзакциями, итоговый статус SUCCESS — в транзакции импорта.
+     * Метод вызывается и из фоновых потоков, поэтому сам активирует request context (нужен для EntityManager).
+     * В режиме CHUNKED данные коммитятся каждые {@link ImportSettings#chunkSize()} строк; при сбое
+     * файл остается в MinIO и импорт можно продолжить через {@link #resumeImport(Long)}.
+     */
+    @ActivateRequestContext
+    public void performImport(Path file, Long operationId, String originalFileName,
+                              ImportMode mode, ImportDecoder decoder,
+                              ImportConflictPolicy conflictPolicy, String contentSha256) throws Exception {
+        boolean chunked = mode == ImportMode.CHUNKED;
+        ImportOperation original = findArchivedOriginal(contentSha256, operationId);
+        if (original != null && !importDuplicate(operationId, original)) return;
+
+        // Архив прежнего импорта общий для нескольких записей журнала, поэтому его нельзя удалять при откате
+        boolean reuseArchive = original != null;
+        ArchiveCodec codec = reuseArchive ? ArchiveCodec.orNone(original.getArchiveCodec()) : StorageSettings.archiveCodec();
+        String objectName = reuseArchive
+                ? original.getMinioObjectName()
+                : UUID.randomUUID() + "_" + originalFileName + codec.extension();
+        historyService.markInProgress(operationId, objectName, codec);
+        ImportPhaseEvent total = ImportPhaseEvent.start(operationId, "total");
+
+        // --- 1. MINIO UPLOAD (Prepare Phase MinIO) ---
+        // Загрузка (вместе со сжатием) идет в фоне и читает файл независимо от парсера
+        LOG.fine("[2PC - Orchestrator] START: MinIO Upload.");
+        AtomicBoolean cancelUpload = new AtomicBoolean();
+        Future<?> upload = reuseArchive
+                ? CompletableFuture.completedFuture(null)
+                : executor.submit(() -> minioService.uploadArchive(objectName, file, codec, cancelUpload::get));
+        // Проверяется после каждой пачки: при упавшей загрузке дочитывать файл в БД незачем
+        Runnable checkUpload = () -> {
+            if (!upload.isDone()) return;
+            Throwable error = uploadFailure(upload);
+            if (error != null) throw new RuntimeException("MinIO upload failed: " + error.getMessage(), error);
+        };
 
         // --- 2. DB TRANSACTION (Prepare Phase DB) ---
         EntityTransaction tx = em.getTransaction();
-        Long operationId = null;
+        DbTransactionEvent transaction = null;
+        Checkpoint checkpoint = new Checkpoint(0, 0);
+        ImportResult result;
+
+        try (InputStream content = Files.newInputStream(file)) {
+            // --- ТОЧКА ОТКАЗА C: Ошибка в бизнес-логике сервера (MinIO OK, DB NO-BEGIN) ---
+            if (SIMULATE_MID_LOGIC_FAILURE) {
+                SIMULATE_MID_LOGIC_FAILURE = false;
+                LOG.warning("[2PC - Orchestrator] SIMULATION: Mid-logic failure triggered (Ошибка в бизнес-логике).");
+                // Искусственный сбой. MinIO-файл уже загружается, его нужно удалить в секции catch.
+                throw new RuntimeException("SIMULATION: Mid-logic failure forced.");
+            }
 
-        try {
             tx.begin();
-            System.out.println("[2PC - Orchestrator] DB: Transaction BEGIN (Prepare Phase).");
+            transaction = DbTransactionEvent.start("import");
+            LOG.fine("[2PC - Orchestrator] DB: Transaction BEGIN (Prepare Phase).");
 
-            // 2.1. Лог начала
-            ImportOperation log = new ImportOperation();
-            log.setUser(currentUser);
-            log.setStatus(ImportStatus.IN_PROGRESS);
-            log.setStartTime(ZonedDateTime.now());
-            log.setMinioObjectName(objectName);
-            em.persist(log);
-            em.flush();
-            operationId = log.getId();
+            // 2.1. Парсинг и сохранение всех сущностей (если processCsv упадет, то БД откатится)
+            ImportPhaseEvent parse = ImportPhaseEvent.start(operationId, "parse_write");
+            try {
+                result = processCsv(content, operationId, checkpoint, chunked, decoder, conflictPolicy, checkUpload);
+                parse.finish(true, result.rows);
+            } catch (RuntimeException e) {
+                parse.finish(false, checkpoint.row);
+                throw e;
+            }
 
-            // 2.2. Парсинг и сохранение всех сущностей (если processCsv упадет, то БД откатится)
-            int count = processCsv(fileContent);
+            ImportPhaseEvent uploadWait = ImportPhaseEvent.start(operationId, "upload_wait");
+            awaitUpload(upload);
+            uploadWait.finish(true, result.rows);
 
             // --- ТОЧКА ОТКАЗА B: Отказ БД (перед коммитом) ---
             if (SIMULATE_DB_FAILURE) {
                 SIMULATE_DB_FAILURE = false;
-                System.err.println("[2PC - Orchestrator] SIMULATION: DB failure triggered (Oтказ БД).");
+                LOG.warning("[2PC - Orchestrator] SIMULATION: DB failure triggered (Oтказ БД).");
                 // Искусственный сбой. Все операции в БД (log и сущности) будут отменены.
                 throw new RuntimeException("SIMULATION: DB failure forced before commit.");
             }
 
-            // 2.3. Обновление лога
-            log.setStatus(ImportStatus.SUCCESS);
-            log.setAddedObjectsCount(count);
-            log.setEndTime(ZonedDateTime.now());
-            em.merge(log);
+            // 2.2. Обновление лога в той же транзакции: SUCCESS виден только вместе с данными
+            ImportPhaseEvent commit = ImportPhaseEvent.start(operationId, "commit");
+            importOperationRepository.markSuccess(operationId, result.rows, result.persisted);
 
             // --- 3. COMMIT (Commit Phase) ---
-            System.out.println("[2PC - Orchestrator] DB: COMMIT attempt (Commit Phase).");
+            LOG.fine("[2PC - Orchestrator] DB: COMMIT attempt (Commit Phase).");
             tx.commit();
-            System.out.println("[2PC - Orchestrator] DB: COMMIT SUCCESSFUL. Import Finalized.");
+            evictUpserted(conflictPolicy);
+            transaction.finish(true);
+            commit.finish(true, result.rows);
+            LOG.fine("[2PC - Orchestrator] DB: COMMIT SUCCESSFUL. Import Finalized.");
 
         } catch (Exception e) {
             // --- 4. ROLLBACK / COMPENSATION ---
-            System.err.println("[2PC - Orchestrator] Rollback/Compensation Phase: Exception caught: " + e.getMessage());
+            LOG.warning("[2PC - Orchestrator] Rollback/Compensation Phase: Exception caught: " + e.getMessage());
 
             if (tx.isActive()) {
                 tx.rollback();
-                System.err.println("[2PC - Orchestrator] DB: ROLLBACK successful.");
+                LOG.warning("[2PC - Orchestrator] DB: ROLLBACK successful.");
             }
+            if (transaction != null) transaction.finish(false);
 
-            // Компенсация MinIO: Удаляем файл, так как транзакция БД не прошла!
-            minioService.deleteFile(objectName);
+            // Без CHUNKED файл больше не нужен: оставшиеся части не загружаем. Дожидаемся окончания
+            // загрузки в любом случае, иначе файл может появиться в MinIO уже после удаления
+            RuntimeException failure;
+            boolean uploadCancelled = !chunked && !upload.isDone();
+            if (uploadCancelled) cancelUpload.set(true);
+            Throwable uploadError = uploadFailure(upload);
+            if (chunked && uploadError == null) {
+                // Закоммиченные пачки остаются в БД, файл не удаляем: с него продолжится импорт
+                failure = new RuntimeException("Импорт прерван после строки " + checkpoint.row
+                        + ", его можно продолжить: " + e.getMessage(), e);
+            } else if (uploadError != null && !uploadCancelled) {
+                // Если MinIO упал, файл не был загружен. Имя объекта убираем из журнала:
+                // без файла импорт CHUNKED нельзя продолжить, и предлагать это не нужно
+                LOG.warning("[2PC - Orchestrator] ERROR: MinIO Prepare FAILED. Aborting.");
+                historyService.clearArchive(operationId);
+                String db = chunked ? "В БД остались строки до " + checkpoint.row + "." : "БД откачена.";
+                failure = new RuntimeException("Ошибка загрузки файла в хранилище. " + db + " (MinIO-fail)", uploadError);
+            } else {
+                // Компенсация MinIO: Удаляем файл, так как транзакция БД не прошла!
+                // Отмененный multipart upload файла не оставляет
+                if (uploadError == null && !reuseArchive) minioService.deleteFile(objectName);
+                String archive = reuseArchive ? "Архив прежнего импорта сохранен" : "Файл удален";
+                failure = new RuntimeException("Ошибка импорта. " + archive + ", БД откачена: " + e.getMessage(), e);
+            }
 
-            // Запись в лог об ошибке может быть добавлена здесь в новой транзакции,
-            // но для атомарности достаточно кинуть ошибку и удалить файл.
-            throw new RuntimeException("Ошибка импорта. Файл удален, БД откачена: " + e.getMessage(), e);
+            // Журнал пишется отдельной транзакцией, поэтому FAILURE сохранится несмотря на откат
+            historyService.updateLogEntry(operationId, ImportStatus.FAILURE, checkpoint.persisted, failure.getMessage());
+            total.finish(false, checkpoint.row);
+            if (chunked && checkpoint.persisted > 0) publishCommittedChunks(operationId);
+            throw failure;
         }
-    }
 
-    private int processCsv(byte[] content) {
-        try (Reader reader = new InputStreamReader(new ByteArrayInputStream(content), StandardCharsets.UTF_8)) {
-            List<CsvImportModel> importModels = new CsvToBeanBuilder<CsvImportModel>(reader)
-                    .withType(CsvImportModel.class)
-                    .withSeparator(',')
-                    .withIgnoreLeadingWhiteSpace(true)
-                    .build()
-                    .parse();
+        total.finish(true, result.rows);
+        AppMetrics.countImportedRows(result.rows);
+        // Вне try: сбой уведомления не должен запускать компенсацию уже закоммиченного импорта
+        changes.fire(new OrganizationChangedEvent(OrganizationChangedEvent.Type.IMPORTED, List.of()));
+    }
 
-            if(importModels.isEmpty()) throw new IllegalArgumentException("Empty file");
+    /**
+     * Прежний успешный импорт того же файла, архив которого действительно есть в MinIO, или null.
+     * Объект могли удалить из бакета, тогда файл загружается заново, как новый.
+     */
+    private ImportOperation findArchivedOriginal(String contentSha256, Long operationId) {
+        Set<String> checked = new HashSet<>();
+        for (ImportOperation candidate : importOperationRepository.findArchivedDuplicates(
+                contentSha256, operationId, MAX_DUPLICATE_CANDIDATES)) {
+            // Переиспользованный архив записан сразу в нескольких операциях
+            if (!checked.add(candidate.getMinioObjectName())) continue;
+            try {
+                if (minioService.statFile(candidate.getMinioObjectName()) != null) return candidate;
+                LOG.warning("[IMPORT] Archive of #" + candidate.getId() + " is missing in MinIO: "
+                        + candidate.getMinioObjectName());
+            } catch (RuntimeException e) {
+                LOG.warning("[IMPORT] Cannot check archive of #" + candidate.getId() + ": " + e.getMessage());
+                return null;
+            }
+        }
+        return null;
+    }
 
-            for(CsvImportModel m : importModels) {
-                // ТУТ ВАЖНО: Вы должны выполнить маппинг CsvImportModel в Organization и сохранить его
-                // ПРИМЕР: organizationRepository.create(OrganizationMapper.toOrganization(m));
-                // ИСПОЛЬЗУЙТЕ МЕТОД, КОТОРЫЙ НЕ ОТКРЫВАЕТ НОВУЮ ТРАНЗАКЦИЮ (например, из OrganizationRepository)
-                // Иначе вы получите ошибку "Transaction already active" или частичный коммит.
+    /**
+     * Повторная загрузка файла импорта #original. Возвращает true, если импорт в БД нужно выполнить;
+     * при SKIP запись журнала закрывается успешной без изменений в БД, при REJECT — ошибкой.
+     */
+    private boolean importDuplicate(Long operationId, ImportOperation original) {
+        DuplicateFilePolicy policy = ImportSettings.duplicatePolicy();
+        LOG.info("[IMPORT] #" + operationId + " has the same content as #" + original.getId() + ", policy " + policy);
+        switch (policy) {
+            case SKIP -> {
+                historyService.markInProgress(operationId, original.getMinioObjectName(),
+                        ArchiveCodec.orNone(original.getArchiveCodec()));
+                historyService.updateLogEntry(operationId, ImportStatus.SUCCESS, 0,
+                        "Файл совпадает с импортом #" + original.getId() + ", импорт пропущен.");
+                return false;
+            }
+            case REJECT -> {
+                String message = "Файл уже импортирован (импорт #" + original.getId() + ").";
+                historyService.updateLogEntry(operationId, ImportStatus.FAILURE, 0, message);
+                throw new IllegalStateException(message);
+            }
+            default -> {
+                return true;
             }
-            return importModels.size();
+        }
+    }
+
+    /**
+     * Продолжение прерванного импорта в режиме CHUNKED: файл читается из MinIO, строки до
+     * последней закоммиченной пропускаются, остальные пишутся так же пачками с коммитами.
+     */
+    @ActivateRequestContext
+    public void resumeImport(Long operationId) throws Exception {
+        ImportOperation operation = importOperationRepository.findById(operationId);
+        if (operation == null || operation.getMode() != ImportMode.CHUNKED || operation.getMinioObjectName() == null) {
+            throw new IllegalStateException("Import " + operationId + " cannot be resumed");
+        }
+        Checkpoint checkpoint = new Checkpoint(
+                operation.getLastCommittedRow() == null ? 0 : operation.getLastCommittedRow(),
+                operation.getAddedObjectsCount() == null ? 0 : operation.getAddedObjectsCount());
+        long resumedFrom = checkpoint.row;
+        int resumedPersisted = checkpoint.persisted;
+        ArchiveCodec codec = ArchiveCodec.orNone(operation.getArchiveCodec());
+        historyService.markInProgress(operationId, operation.getMinioObjectName(), codec);
+        LOG.info("[IMPORT] Resuming #" + operationId + " after row " + resumedFrom);
+        ImportPhaseEvent total = ImportPhaseEvent.start(operationId, "total");
+
+        EntityTransaction tx = em.getTransaction();
+        DbTransactionEvent transaction = null;
+        ImportConflictPolicy conflictPolicy = operation.getConflictPolicy() == null
+                ? ImportConflictPolicy.FAIL : operation.getConflictPolicy();
+        ImportResult result;
+        try (InputStream content = minioService.downloadArchive(operation.getMinioObjectName(), codec)) {
+            tx.begin();
+            transaction = DbTransactionEvent.start("import");
+            ImportPhaseEvent parse = ImportPhaseEvent.start(operationId, "parse_write");
+            result = processCsv(content, operationId, checkpoint, true, operation.getDecoder(), conflictPolicy, () -> { });
+            parse.finish(true, result.rows);
+
+            ImportPhaseEvent commit = ImportPhaseEvent.start(operationId, "commit");
+            importOperationRepository.markSuccess(operationId, result.rows, result.persisted);
+            tx.commit();
+            evictUpserted(conflictPolicy);
+            transaction.finish(true);
+            commit.finish(true, result.rows);
         } catch (Exception e) {
-            throw new RuntimeException(e);
+            if (tx.isActive()) tx.rollback();
+            if (transaction != null) transaction.finish(false);
+            String message = "Импорт прерван после строки " + checkpoint.row + ", его можно продолжить: " + e.getMessage();
+            historyService.updateLogEntry(operationId, ImportStatus.FAILURE, checkpoint.persisted, message);
+            total.finish(false, checkpoint.row);
+            if (checkpoint.persisted > resumedPersisted) publishCommittedChunks(operationId);
+            throw new RuntimeException(message, e);
+        }
+
+        total.finish(true, result.rows);
+        AppMetrics.countImportedRows(result.rows - resumedFrom);
+
+        changes.fire(new OrganizationChangedEvent(OrganizationChangedEvent.Type.IMPORTED, List.of()));
+    }
+
+    /**
+     * Разбирает и записывает строки пачками. Строки с номером не больше checkpoint.row уже
+     * закоммичены и только пропускаются. В режиме chunked после каждых chunkSize строк
+     * транзакция коммитится вместе с новой точкой продолжения. checkUpload вызывается после каждой пачки
+     * и до коммита, чтобы сбой параллельной загрузки в MinIO прервал импорт.
+     */
+    private ImportResult processCsv(InputStream content, Long operationId, Checkpoint checkpoint, boolean chunked,
+                                    ImportDecoder decoder, ImportConflictPolicy conflictPolicy, Runnable checkUpload) {
+        // Reader не закрываем: потоком владеет performImport
+        Reader reader = new InputStreamReader(content, StandardCharsets.UTF_8);
+
+        long count;
+        int persisted = checkpoint.persisted;
+        int chunkSize = ImportSettings.chunkSize();
+        UniquenessReport uniqueness = new UniquenessReport();
+        // Разбор и валидация идут параллельно, запись — здесь, в потоке транзакции, в порядке файла
+        try (CsvImportPipeline pipeline = new CsvImportPipeline(reader, CsvModelDecoder.create(decoder), checkpoint.row, BATCH_SIZE,
+                ImportSettings.parseThreads() * 2, organizationService::validateImportedOrganization, executor, parsePool)) {
+            List<ImportRow> chunk;
+            while ((chunk = pipeline.next()) != null) {
+                long lastRow = chunk.get(chunk.size() - 1).getRowNumber();
+                persisted += writeChunk(chunk, uniqueness, conflictPolicy);
+                checkUpload.run();
+                if (chunked && lastRow - checkpoint.row >= chunkSize) {
+                    commitChunk(operationId, checkpoint, lastRow, persisted, uniqueness);
+                    evictUpserted(conflictPolicy);
+                }
+                historyService.updateProgress(operationId, lastRow, persisted);
+            }
+            count = pipeline.getRecordCount();
+        }
+
+        if (count == 0) throw new IllegalArgumentException("Empty file");
+
+        // Сообщаем сразу обо всех нарушениях уникальности, а не только о первом
+        uniqueness.throwIfViolated();
+        return new ImportResult(count, persisted);
+    }
+
+    // Нарушения уникальности проверяются до коммита: закоммиченную пачку уже не откатить
+    private void commitChunk(Long operationId, Checkpoint checkpoint, long row, int persisted,
+                             UniquenessReport uniqueness) {
+        uniqueness.throwIfViolated();
+        importOperationRepository.markCheckpoint(operationId, row, persisted);
+        EntityTransaction tx = em.getTransaction();
+        tx.commit();
+        // Закоммиченная пачка уже видна в агрегатах; событие публикуется в конце импорта, в том числе прерванного
+        queryCache.invalidateAll();
+        checkpoint.row = row;
+        checkpoint.persisted = persisted;
+        tx.begin();
+    }
+
+    /**
+     * Записывает пачку и возвращает число вставленных или обновленных организаций.
+     * Конфликты (name, type) с БД определяет уникальный индекс при вставке, отдельного запроса на проверку нет.
+     * При FAIL корректные строки пишутся и после нарушений: по ним следующие пачки находят дубликаты в файле,
+     * а транзакция все равно будет откачена.
+     */
+    private int writeChunk(List<ImportRow> chunk, UniquenessReport uniqueness, ImportConflictPolicy policy) {
+        boolean report = policy == ImportConflictPolicy.FAIL;
+        for (ImportRow duplicate : uniquenessValidator.removeFileDuplicates(chunk, policy)) {
+            if (report) uniqueness.add(OrganizationUniquenessValidator.violation(duplicate, "is duplicated in file."));
+        }
+        if (!SchemaIndexMigration.isNameTypeUnique() && policy != ImportConflictPolicy.UPSERT) {
+            List<String> violations = uniquenessValidator.removeViolations(chunk);
+            if (report) uniqueness.add(violations);
+        }
+
+        Map<Organization, ImportRow> rows = new IdentityHashMap<>(chunk.size());
+        List<Organization> organizations = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            rows.put(row.getOrganization(), row);
+            organizations.add(row.getOrganization());
+        }
+        List<Organization> rejected = policy == ImportConflictPolicy.UPSERT
+                ? batchWriter.upsertAll(organizations).getRejected()
+                : batchWriter.insertAll(organizations);
+        // При UPSERT отклоненная строка значит, что организацию параллельно создал другой запрос
+        if (policy != ImportConflictPolicy.SKIP) {
+            for (Organization organization : rejected) {
+                uniqueness.add(OrganizationUniquenessValidator.violation(rows.get(organization), "already exists."));
+            }
+        }
+        chunk.clear();
+        return organizations.size() - rejected.size();
+    }
+
+    /**
+     * Пачки прерванного импорта CHUNKED уже закоммичены и остаются в БД. Локальный L2-кэш вытесняется
+     * после каждой пачки, а клиентам, кэшу запросов и остальным узлам кластера сообщаем, как об успешном импорте.
+     * Сбой уведомления не должен подменять ошибку импорта.
+     */
+    private void publishCommittedChunks(Long operationId) {
+        try {
+            changes.fire(new OrganizationChangedEvent(OrganizationChangedEvent.Type.IMPORTED, List.of()));
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING, "[IMPORT] Failed to publish committed chunks of #" + operationId, e);
+        }
+    }
+
+    // UPSERT обновляет строки JDBC в обход EclipseLink, поэтому закэшированные копии устарели
+    private void evictUpserted(ImportConflictPolicy policy) {
+        if (policy != ImportConflictPolicy.UPSERT) return;
+        Cache cache = em.getEntityManagerFactory().getCache();
+        cache.evict(Organization.class);
+        cache.evict(Address.class);
+        cache.evict(Coordinates.class);
+    }
+
+    // Итог разбора файла: всего строк и сколько организаций записано (с учетом пропущенных конфликтов)
+    private static class ImportResult {
+        final long rows;
+        final int persisted;
+
+        ImportResult(long rows, int persisted) {
+            this.rows = rows;
+            this.persisted = persisted;
+        }
+    }
+
+    // Последняя закоммиченная строка файла и число записанных к этому моменту организаций
+    private static class Checkpoint {
+        long row;
+        int persisted;
+
+        Checkpoint(long row, int persisted) {
+            this.row = row;
+            this.persisted = persisted;
+        }
+    }
+
+    // Накопитель нарушений уникальности; текст ограничен, чтобы не держать в памяти миллионы сообщений
+    private static class UniquenessReport {
+        private static final int MAX_REPORTED = 100;
+
+        private final List<String> messages = new ArrayList<>();
+        private int total = 0;
+
+        void add(List<String> violations) {
+            for (String v : violations) {
+                add(v);
+            }
+        }
+
+        void add(String violation) {
+            total++;
+            if (messages.size() < MAX_REPORTED) messages.add(violation);
+        }
+
+        void throwIfViolated() {
+            if (total == 0) return;
+            StringBuilder sb = new StringBuilder("Found " + total + " uniqueness violation(s): ");
+            sb.append(String.join("; ", messages));
+            if (total > messages.size()) {
+                sb.append("; ... and ").append(total - messages.size()).append(" more");
+            }
+            throw new UniqueConstraintViolationException(sb.toString());
+        }
+    }
+
+    private void awaitUpload(Future<?> upload) throws Exception {
+        try {
+            upload.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : new RuntimeException(cause);
+        }
+    }
+
+    // Возвращает ошибку загрузки или null, если файл в MinIO записан
+    private Throwable uploadFailure(Future<?> upload) {
+        try {
+            upload.get();
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return e;
         }
     }
-}
\ No newline at end of file
+}
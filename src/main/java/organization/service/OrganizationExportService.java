@@ -0,0 +1,94 @@
+package organization.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.opencsv.CSVWriter;
+import com.opencsv.ICSVWriter;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import organization.config.ObjectMapperProvider;
+import organization.dto.CsvImportModel;
+import organization.entity.Organization;
+import organization.mapper.OrganizationMapper;
+import organization.repository.OrganizationRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Потоковый экспорт организаций. Таблица читается порциями по id (keyset), каждая порция
+ * сразу пишется в поток ответа и отсоединяется от EntityManager — память не зависит от числа строк.
+ */
+@ApplicationScoped
+public class OrganizationExportService {
+
+    private static final int PAGE_SIZE = 1000;
+
+    private final ObjectMapper objectMapper = ObjectMapperProvider.createObjectMapper();
+
+    @Inject
+    private OrganizationRepository organizationRepository;
+
+    // CSV в формате импорта (колонки CsvImportModel), файл можно загрузить обратно
+    public void exportCsv(OutputStream out) throws IOException {
+        ICSVWriter csv = new CSVWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+        csv.writeNext(CsvImportModel.COLUMNS);
+        forEachPage(page -> {
+            for (Organization organization : page) {
+                csv.writeNext(OrganizationMapper.toCsvRow(organization));
+            }
+            flush(csv::flush);
+        });
+        csv.flush();
+    }
+
+    // JSON Lines: одна OrganizationResponseDTO на строку
+    public void exportJsonLines(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        generator.setRootValueSeparator(null);
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        forEachPage(page -> flush(() -> {
+            for (Organization organization : page) {
+                writer.writeValue(generator, OrganizationMapper.toOrganizationResponseDTO(organization));
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+        }));
+        generator.close();
+    }
+
+    private void forEachPage(Consumer<List<Organization>> consumer) {
+        long lastId = 0;
+        while (true) {
+            List<Organization> page = organizationRepository.findBatchAfterId(lastId, PAGE_SIZE);
+            if (page.isEmpty()) return;
+
+            consumer.accept(page);
+            lastId = page.get(page.size() - 1).getId();
+            organizationRepository.clear();
+        }
+    }
+
+    private void flush(IoAction action) {
+        try {
+            action.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IoAction {
+        void run() throws IOException;
+    }
+}
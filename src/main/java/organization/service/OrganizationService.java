@@ -1,45 +1,92 @@
 package organization.service;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityTransaction;
 import jakarta.persistence.NoResultException;
 import jakarta.validation.ValidationException;
 import lombok.NoArgsConstructor;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.ServerErrorMessage;
+import organization.cache.QueryResultCache;
+import organization.config.SchemaIndexMigration;
 import organization.dto.*;
 import organization.entity.*;
+import organization.event.OrganizationChangedEvent;
 import organization.exception.UniqueConstraintViolationException;
 import organization.mapper.OrganizationMapper;
+import organization.metrics.DbTransactionEvent;
 import organization.repository.OrganizationRepository;
+import organization.repository.OrganizationStatisticsRepository;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @ApplicationScoped // Лучше ApplicationScoped для CDI бинов
 @NoArgsConstructor
 public class OrganizationService {
 
+    // SQLSTATE нарушения уникальности в PostgreSQL
+    private static final String UNIQUE_VIOLATION = "23505";
+
     @Inject
     private OrganizationRepository organizationRepository;
 
     @Inject
     private EntityManager em; // Инжектим для управления транзакциями
 
+    @Inject
+    private Event<OrganizationChangedEvent> changes;
+
+    @Inject
+    private QueryResultCache queryCache;
+
+    @Inject
+    private OrganizationStatisticsRepository statisticsRepository;
+
     // Вспомогательный метод для выполнения в транзакции
     private <T> T executeInTransaction(TransactionAction<T> action) {
         EntityTransaction tx = em.getTransaction();
+        DbTransactionEvent transaction = null;
         try {
             tx.begin();
+            transaction = DbTransactionEvent.start("service");
             T result = action.execute();
             tx.commit();
+            transaction.finish(true);
             return result;
-        } catch (Exception e) {
+        } catch (RuntimeException e) {
             if (tx.isActive()) tx.rollback();
+            if (transaction != null) transaction.finish(false);
+            // Нарушение уникального индекса (name, type) при update/merge — та же ошибка, что и при создании
+            if (isUniqueViolation(e)) {
+                throw new UniqueConstraintViolationException(
+                        "Organization with the same Name and Organization Type already exists.");
+            }
             throw e; // Пробрасываем ошибку дальше
         }
     }
 
+    // Нарушен именно индекс (name, type), а не другое уникальное ограничение
+    private static boolean isUniqueViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PSQLException && UNIQUE_VIOLATION.equals(((PSQLException) cause).getSQLState())) {
+                ServerErrorMessage message = ((PSQLException) cause).getServerErrorMessage();
+                return message != null && SchemaIndexMigration.NAME_TYPE_INDEX.equals(message.getConstraint());
+            }
+        }
+        return false;
+    }
+
+    // Уведомление об изменении вызывается только после успешного commit
+    private void publish(OrganizationChangedEvent.Type type, Long... ids) {
+        changes.fire(new OrganizationChangedEvent(type, List.of(ids)));
+    }
+
     // Функциональный интерфейс для лямбд
     @FunctionalInterface
     private interface TransactionAction<T> {
@@ -47,13 +94,19 @@ public class OrganizationService {
     }
 
     public OrganizationResponseDTO createOrganization(OrganizationRequestDTO organizationDTO) {
-        return executeInTransaction(() -> {
+        OrganizationResponseDTO created = executeInTransaction(() -> {
             Organization org = OrganizationMapper.toOrganization(organizationDTO);
-            checkProgrammaticUniqueness(org.getName(), org.getType());
             validateOrganization(org);
+            // С уникальным индексом дубликат отклонит сама БД (см. executeInTransaction), без предварительного SELECT.
+            // Одиночная запись идет через persist, чтобы работала Bean Validation сущности
+            if (!SchemaIndexMigration.isNameTypeUnique()) {
+                checkProgrammaticUniqueness(org.getName(), org.getType());
+            }
             organizationRepository.create(org);
             return OrganizationMapper.toOrganizationResponseDTO(org);
         });
+        publish(OrganizationChangedEvent.Type.CREATED, created.getId());
+        return created;
     }
 
     public void updateOrganization(Long organizationId, OrganizationResponseDTO organizationDTO) {
@@ -64,6 +117,7 @@ public class OrganizationService {
             organizationRepository.update(organization);
             return null;
         });
+        publish(OrganizationChangedEvent.Type.UPDATED, organizationId);
     }
 
     public OrganizationResponseDTO getOrganizationById(Long id) {
@@ -77,6 +131,7 @@ public class OrganizationService {
             organizationRepository.deleteById(id);
             return null;
         });
+        publish(OrganizationChangedEvent.Type.DELETED, id);
     }
 
     // Остальные методы чтения (GET) можно оставить без транзакций или обернуть, если нужна изоляция
@@ -86,20 +141,49 @@ public class OrganizationService {
                 .collect(Collectors.toList());
     }
 
+    public PageResponseDTO<OrganizationResponseDTO> getOrganizationsPage(OrganizationPageRequest request) {
+        if (request.getSize() <= 0 || request.getSize() > OrganizationPageRequest.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + OrganizationPageRequest.MAX_PAGE_SIZE);
+        }
+        if (request.getPage() < 0) throw new IllegalArgumentException("Page can't be negative");
+        if (request.getOffset() != null && request.getOffset() < 0) {
+            throw new IllegalArgumentException("Offset can't be negative");
+        }
+
+        List<OrganizationResponseDTO> content = organizationRepository.findPage(request).stream()
+                .map(OrganizationMapper::toOrganizationResponseDTO)
+                .collect(Collectors.toList());
+        long total = organizationRepository.count(request.getFilters());
+        return new PageResponseDTO<>(content, request.getPage(), request.getSize(), total);
+    }
+
+    public long countOrganizations(Map<String, String> filters) {
+        return organizationRepository.count(filters);
+    }
+
+    // Агрегаты берутся из QueryResultCache, который сбрасывается при любом изменении организаций;
+    // счетчики читаются из сводных таблиц (OrganizationStatisticsRepository)
     public OrganizationResponseDTO getOrganizationWithMaxFullName() {
-        return OrganizationMapper.toOrganizationResponseDTO(organizationRepository.getOrganizationWithMaxFullName());
+        return queryCache.get("maxFullName", List.of(), () ->
+                OrganizationMapper.toOrganizationResponseDTO(organizationRepository.getOrganizationWithMaxFullName()));
     }
 
     public long countByPostalAddress(AddressRequestDTO postalAddress) {
-        return organizationRepository.countByPostalAddress(OrganizationMapper.toAddress(postalAddress));
+        Address address = OrganizationMapper.toAddress(postalAddress);
+        // Пустой индекс репозиторий трактует как его отсутствие — ключ должен совпадать
+        String zip = address.getZipCode() == null || address.getZipCode().isBlank() ? null : address.getZipCode();
+        return queryCache.get("countByPostalAddress", Arrays.asList(address.getStreet(), zip), () ->
+                statisticsRepository.countByPostalAddress(address.getStreet(), zip));
     }
 
     public long countByTypeLessThan(OrganizationTypeDTO type) {
-        return organizationRepository.countByTypeLessThan(OrganizationMapper.toOrganizationType(type));
+        OrganizationType organizationType = OrganizationMapper.toOrganizationType(type);
+        return queryCache.get("countByTypeLessThan", Arrays.asList(organizationType), () ->
+                statisticsRepository.countByTypeLessThan(organizationType));
     }
 
     public OrganizationResponseDTO mergeOrganizations(OrganizationMergeRequestDTO dto) {
-        return executeInTransaction(() -> {
+        OrganizationResponseDTO merged = executeInTransaction(() -> {
             Organization org1 = organizationRepository.findById(dto.getOrgId1());
             Organization org2 = organizationRepository.findById(dto.getOrgId2());
             if (org1 == null || org2 == null) throw new IllegalArgumentException("One of the organizations was not found");
@@ -117,10 +201,12 @@ public class OrganizationService {
             organizationRepository.delete(org2);
             return OrganizationMapper.toOrganizationResponseDTO(org1);
         });
+        publish(OrganizationChangedEvent.Type.MERGED, dto.getOrgId1(), dto.getOrgId2());
+        return merged;
     }
 
     public OrganizationResponseDTO absorbOrganization(OrganizationAbsorbRequestDTO dto) {
-        return executeInTransaction(() -> {
+        OrganizationResponseDTO result = executeInTransaction(() -> {
             Organization absorber = organizationRepository.findById(dto.getOrgId1());
             Organization absorbed = organizationRepository.findById(dto.getOrgId2());
             if (absorber == null || absorbed == null) throw new IllegalArgumentException("One of the organizations was not found");
@@ -134,10 +220,13 @@ public class OrganizationService {
 
             return OrganizationMapper.toOrganizationResponseDTO(absorber);
         });
+        publish(OrganizationChangedEvent.Type.ABSORBED, dto.getOrgId1(), dto.getOrgId2());
+        return result;
     }
 
-    // Private helpers без изменений
-    private void checkProgrammaticUniqueness(String title, OrganizationType type) {
+    // Хелперы доступны в пакете: ими пользуется ObjectImportService.
+    // Запрос уникальности нужен, только пока в БД нет уникального индекса (name, type)
+    void checkProgrammaticUniqueness(String title, OrganizationType type) {
         try {
             Long count = em.createQuery("SELECT count(o) FROM Organization o WHERE o.name = :name AND o.type = :type", Long.class)
                     .setParameter("name", title)
@@ -152,7 +241,27 @@ public class OrganizationService {
         } catch (NoResultException e) { /* OK */ }
     }
 
-    private void validateOrganization(Organization organization) {
+    /**
+     * Проверка строки импорта: пустые ячейки CSV дают null и пустые строки, о которых нужно сообщить
+     * с номером строки, а не падать на NullPointerException. Затем общие правила validateOrganization.
+     */
+    void validateImportedOrganization(Organization organization) {
+        if (organization.getFullName() == null || organization.getFullName().trim().isEmpty()) {
+            throw new ValidationException("Organization full name can't be empty");
+        }
+        if (organization.getAnnualTurnover() == null) {
+            throw new ValidationException("Annual turnover must be positive");
+        }
+        if (organization.getRating() == null) {
+            throw new ValidationException("Rating must be positive");
+        }
+        if (organization.getCoordinates() == null || organization.getCoordinates().getY() == null) {
+            throw new ValidationException("Coordinates can't be null");
+        }
+        validateOrganization(organization);
+    }
+
+    void validateOrganization(Organization organization) {
         // ... (код валидации оставить как был)
         if (organization.getName() == null || organization.getName().trim().isEmpty()) {
             throw new ValidationException("Organization name can't be empty");
@@ -0,0 +1,101 @@
+package organization.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import organization.entity.ImportConflictPolicy;
+import organization.entity.OrganizationType;
+import organization.repository.OrganizationRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Проверка уникальности (name, type) для пачки импорта. Конфликты с БД ловит уникальный индекс
+ * (INSERT ... ON CONFLICT в OrganizationBatchWriter), здесь остаются дубликаты внутри пачки —
+ * в одном multi-row INSERT они не отличимы от конфликтов с БД.
+ * Без уникального индекса (дубликаты в старых данных) используется прежняя проверка одним запросом на пачку.
+ */
+@ApplicationScoped
+public class OrganizationUniquenessValidator {
+
+    @Inject
+    private OrganizationRepository organizationRepository;
+
+    static String key(String name, OrganizationType type) {
+        return name + "|" + type;
+    }
+
+    static String violation(ImportRow row, String problem) {
+        return "Строка " + row.getRowNumber() + ": Organization with Name='"
+                + row.getOrganization().getName() + "' and Organization Type='"
+                + row.getOrganization().getType() + "' " + problem;
+    }
+
+    /**
+     * Удаляет из пачки повторы (name, type) и возвращает удаленные строки. Для UPSERT остается
+     * последнее вхождение (файл читается сверху вниз), для остальных политик — первое.
+     */
+    public List<ImportRow> removeFileDuplicates(List<ImportRow> chunk, ImportConflictPolicy policy) {
+        List<ImportRow> removed = new ArrayList<>();
+        if (policy == ImportConflictPolicy.UPSERT) {
+            Map<String, Integer> last = new HashMap<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                last.put(chunk.get(i).uniquenessKey(), i);
+            }
+            if (last.size() == chunk.size()) return removed;
+            List<ImportRow> kept = new ArrayList<>(last.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                ImportRow row = chunk.get(i);
+                if (last.get(row.uniquenessKey()) == i) kept.add(row); else removed.add(row);
+            }
+            chunk.clear();
+            chunk.addAll(kept);
+            return removed;
+        }
+
+        Set<String> seen = new HashSet<>();
+        Iterator<ImportRow> it = chunk.iterator();
+        while (it.hasNext()) {
+            ImportRow row = it.next();
+            if (!seen.add(row.uniquenessKey())) {
+                removed.add(row);
+                it.remove();
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Удаляет из пачки строки, чьи (name, type) уже есть в БД, и возвращает сообщения о каждой из них.
+     * Нужна, только пока в БД нет уникального индекса (name, type).
+     */
+    public List<String> removeViolations(List<ImportRow> chunk) {
+        List<String> violations = new ArrayList<>();
+        if (chunk.isEmpty()) return violations;
+
+        Set<String> names = new HashSet<>();
+        for (ImportRow row : chunk) {
+            names.add(row.getOrganization().getName());
+        }
+
+        Set<String> existing = new HashSet<>();
+        for (Object[] pair : organizationRepository.findNameTypePairs(names)) {
+            existing.add(key((String) pair[0], (OrganizationType) pair[1]));
+        }
+
+        Iterator<ImportRow> it = chunk.iterator();
+        while (it.hasNext()) {
+            ImportRow row = it.next();
+            if (existing.contains(row.uniquenessKey())) {
+                violations.add(violation(row, "already exists."));
+                it.remove();
+            }
+        }
+        return violations;
+    }
+}
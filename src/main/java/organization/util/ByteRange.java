@@ -0,0 +1,49 @@
+package organization.util;
+
+/**
+ * Диапазон байт из заголовка Range (RFC 9110), границы включительно.
+ * Поддерживается один диапазон: на несколько сразу отдается весь файл, что стандарт разрешает.
+ */
+public record ByteRange(long start, long end) {
+
+    // Диапазон за пределами файла: ответ 416
+    public static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+    private static final String UNIT = "bytes=";
+
+    public long length() {
+        return end - start + 1;
+    }
+
+    /**
+     * Разбирает заголовок для файла размером size. Возвращает null, если заголовка нет или он
+     * не поддерживается (отдаем файл целиком), и {@link #UNSATISFIABLE}, если диапазон не пересекается с файлом.
+     */
+    public static ByteRange parse(String header, long size) {
+        if (header == null || !header.startsWith(UNIT)) return null;
+        String spec = header.substring(UNIT.length()).trim();
+        int dash = spec.indexOf('-');
+        if (spec.indexOf(',') >= 0 || dash < 0) return null;
+
+        String from = spec.substring(0, dash).trim();
+        String to = spec.substring(dash + 1).trim();
+        try {
+            if (from.isEmpty()) {
+                // bytes=-N: последние N байт
+                long suffix = Long.parseLong(to);
+                if (suffix <= 0 || size == 0) return UNSATISFIABLE;
+                return new ByteRange(Math.max(size - suffix, 0), size - 1);
+            }
+            long start = Long.parseLong(from);
+            if (start >= size) return UNSATISFIABLE;
+            long end = to.isEmpty() ? size - 1 : Math.min(Long.parseLong(to), size - 1);
+            return end < start ? null : new ByteRange(start, end);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public String contentRange(long size) {
+        return "bytes " + start + "-" + end + "/" + size;
+    }
+}
@@ -0,0 +1,82 @@
+package organization.view;
+
+import org.primefaces.model.FilterMeta;
+import org.primefaces.model.LazyDataModel;
+import org.primefaces.model.SortMeta;
+import org.primefaces.model.SortOrder;
+import organization.dto.OrganizationPageRequest;
+import organization.dto.OrganizationResponseDTO;
+import organization.service.OrganizationService;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ленивая модель для p:dataTable: каждая страница, сортировка и фильтр выполняются в БД,
+ * в памяти держится только текущая страница.
+ */
+public class OrganizationLazyDataModel extends LazyDataModel<OrganizationResponseDTO> {
+
+    private final OrganizationService organizationService;
+
+    // Фильтры вне таблицы (например, точное совпадение fullName из формы над таблицей)
+    private final Map<String, String> extraFilters = new HashMap<>();
+
+    public OrganizationLazyDataModel(OrganizationService organizationService) {
+        this.organizationService = organizationService;
+    }
+
+    public void setExtraFilter(String field, String value) {
+        if (value == null || value.isBlank()) {
+            extraFilters.remove(field);
+        } else {
+            extraFilters.put(field, value);
+        }
+    }
+
+    @Override
+    public int count(Map<String, FilterMeta> filterBy) {
+        return (int) Math.min(Integer.MAX_VALUE, organizationService.countOrganizations(toFilters(filterBy)));
+    }
+
+    @Override
+    public List<OrganizationResponseDTO> load(int first, int pageSize, Map<String, SortMeta> sortBy, Map<String, FilterMeta> filterBy) {
+        OrganizationPageRequest request = OrganizationPageRequest.builder()
+                .page(first / pageSize)
+                .offset((long) first)
+                .size(pageSize)
+                .filters(toFilters(filterBy))
+                .build();
+
+        // Сортировка по одной колонке (режим sortMode="single")
+        for (SortMeta sort : sortBy.values()) {
+            if (sort.getOrder() == SortOrder.UNSORTED) continue;
+            request.setSortField(sort.getField());
+            request.setAscending(sort.getOrder() == SortOrder.ASCENDING);
+            break;
+        }
+
+        return organizationService.getOrganizationsPage(request).getContent();
+    }
+
+    @Override
+    public String getRowKey(OrganizationResponseDTO organization) {
+        return String.valueOf(organization.getId());
+    }
+
+    @Override
+    public OrganizationResponseDTO getRowData(String rowKey) {
+        return organizationService.getOrganizationById(Long.valueOf(rowKey));
+    }
+
+    private Map<String, String> toFilters(Map<String, FilterMeta> filterBy) {
+        Map<String, String> filters = new HashMap<>(extraFilters);
+        for (FilterMeta meta : filterBy.values()) {
+            if (meta.getFilterValue() != null) {
+                filters.put(meta.getField(), meta.getFilterValue().toString());
+            }
+        }
+        return filters;
+    }
+}
@@ -6,21 +6,18 @@ import jakarta.faces.context.FacesContext;
 import jakarta.faces.view.ViewScoped;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
-import organization.config.EntityManagerProducer;
 import organization.dto.*;
 import organization.entity.Address;
 import organization.entity.Coordinates;
 import organization.entity.Organization;
 import organization.entity.OrganizationType;
+import organization.service.CacheStatisticsService;
 import organization.service.OrganizationService;
 import lombok.Data;
 
 import java.io.Serializable;
 import java.time.ZonedDateTime;
-import java.util.ArrayList;
 import java.util.Date;
-import java.util.List;
-import java.util.stream.Collectors;
 
 @Data
 @Named
@@ -28,17 +25,16 @@ import java.util.stream.Collectors;
 public class OrganizationView implements Serializable {
 
     @Inject
-    private EntityManagerProducer emProducer;
+    private CacheStatisticsService cacheStatisticsService;
 
     @Inject
     private OrganizationService organizationService;
 
     private OrganizationRequestDTO newOrganizationDTO;
 
-    private List<OrganizationResponseDTO> organizationsDTO;
-    private String filterName;
+    // Таблица грузит данные постранично из БД
+    private OrganizationLazyDataModel organizations;
 
-    private List<OrganizationResponseDTO> allOrganizations; // Сохранённый полный список
     private String filterFullName; // Новое поле для фильтрации по fullName
 
     private boolean showMaxFullNameModal;
@@ -67,58 +63,26 @@ public class OrganizationView implements Serializable {
 
     @PostConstruct
     public void init() {
-        loadAll();
+        organizations = new OrganizationLazyDataModel(organizationService);
     }
 
+    // Данные таблицы перечитываются при ее обновлении (update="mainDataTable"), здесь грузить нечего
     public void loadAll() {
-
-        organizationsDTO = organizationService.getAllOrganizations();
-
-        if (allOrganizations == null) {
-            allOrganizations = new ArrayList<>(organizationsDTO);
-        }
-    }
-
-    public void loadFiltered() {
-        if (filterName == null || filterName.trim().isEmpty()) {
-            loadAll();
-        } else {
-            // Фильтрация по полному совпадению имени
-            organizationsDTO = organizationService.getAllOrganizations().stream()
-                    .filter(org -> filterName.equals(org.getName()))
-                    .toList();
-        }
-    }
-
-
-    public void init_filter() {
-        loadAll_filter();
-    }
-
-    public void loadAll_filter() {
-        allOrganizations = organizationService.getAllOrganizations();
-        organizationsDTO = new ArrayList<>(allOrganizations); // начальное состояние — полный список
     }
 
     public void clearL2Cache() {
-        emProducer.clearAllCaches();
+        cacheStatisticsService.clearAll();
         FacesContext.getCurrentInstance().addMessage(null,
                 new FacesMessage(FacesMessage.SEVERITY_INFO, "Cache L2 cleared", "Cached data deleted."));
     }
 
     public void applyFullNameFilter() {
-        if (filterFullName == null || filterFullName.trim().isEmpty()) {
-            organizationsDTO = new ArrayList<>(allOrganizations);
-        } else {
-            organizationsDTO = allOrganizations.stream()
-                    .filter(org -> filterFullName.equals(org.getFullName()))
-                    .collect(Collectors.toList());
-        }
+        organizations.setExtraFilter("fullName", filterFullName);
     }
 
     public void clearFilter() {
         filterFullName = null;
-        organizationsDTO = new ArrayList<>(allOrganizations);
+        organizations.setExtraFilter("fullName", null);
     }
 
     public void view(Long id) {
@@ -146,7 +110,6 @@ public class OrganizationView implements Serializable {
         System.out.println("организация с правками:" + editedOrganization);
         if (editedOrganization != null) {
             organizationService.updateOrganization(editedOrganization.getId(), editedOrganization);
-            this.organizationsDTO = organizationService.getAllOrganizations();
             this.editedOrganization = null;
         }
     }
@@ -169,7 +132,6 @@ public class OrganizationView implements Serializable {
         resetSelectedOrganization();
         if (newOrganizationDTO != null) {
             organizationService.createOrganization(newOrganizationDTO);
-            this.organizationsDTO = organizationService.getAllOrganizations();
             this.newOrganizationDTO = null;
         }
     }
@@ -0,0 +1,63 @@
+package organization.web;
+
+import jakarta.enterprise.context.SessionScoped;
+import jakarta.faces.application.FacesMessage;
+import jakarta.faces.context.FacesContext;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import lombok.Getter;
+import lombok.Setter;
+import org.eclipse.persistence.annotations.CacheType;
+import organization.cache.QueryResultCache;
+import organization.dto.CacheStatisticsDTO;
+import organization.dto.QueryCacheStatisticsDTO;
+import organization.service.CacheStatisticsService;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Изменение размера, типа и TTL кэша сущности со страницы администратора
+@Named("cacheAdmin")
+@SessionScoped
+@Getter
+@Setter
+public class CacheAdminBean implements Serializable {
+
+    @Inject
+    private CacheStatisticsService cacheStatisticsService;
+
+    @Inject
+    private QueryResultCache queryCache;
+
+    private String entity = "Organization";
+    private CacheType type = CacheType.SOFT_WEAK;
+    private int size = 500;
+    private long expiryMillis = 0;
+
+    public List<String> getEntities() {
+        return cacheStatisticsService.getStatistics().stream()
+                .filter(stat -> stat.getType() != null)
+                .map(CacheStatisticsDTO::getEntity)
+                .collect(Collectors.toList());
+    }
+
+    public List<QueryCacheStatisticsDTO> getQueryStatistics() {
+        return queryCache.getStatistics();
+    }
+
+    public CacheType[] getTypes() {
+        return CacheType.values();
+    }
+
+    public void apply() {
+        try {
+            cacheStatisticsService.reconfigure(entity, type, size, expiryMillis);
+            FacesContext.getCurrentInstance().addMessage(null, new FacesMessage(FacesMessage.SEVERITY_INFO,
+                    "Cache L2", "Cache of " + entity + ": " + type + ", size " + size));
+        } catch (IllegalArgumentException e) {
+            FacesContext.getCurrentInstance().addMessage(null,
+                    new FacesMessage(FacesMessage.SEVERITY_ERROR, "Cache L2", e.getMessage()));
+        }
+    }
+}
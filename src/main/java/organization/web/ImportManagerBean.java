@@ -9,16 +9,21 @@ import jakarta.inject.Named;
 import org.primefaces.model.DefaultStreamedContent;
 import org.primefaces.model.StreamedContent;
 import org.primefaces.model.file.UploadedFile;
-import organization.config.CacheLoggingInterceptor;
+import organization.dto.CacheStatisticsDTO;
+import organization.entity.ArchiveCodec;
+import organization.entity.ImportConflictPolicy;
+import organization.entity.ImportDecoder;
+import organization.entity.ImportMode;
 import organization.entity.ImportOperation;
 import organization.entity.User;
+import organization.metrics.CacheStatistics;
 import organization.repository.ImportOperationRepository;
 import organization.repository.UserRepository;
+import organization.service.CacheStatisticsService;
+import organization.service.ImportJobService;
 import organization.service.MinioService;
-import organization.service.ObjectImportService;
 import organization.service.UserService;
 
-import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.io.Serializable;
 import java.util.List;
@@ -28,7 +33,7 @@ import java.util.List;
 public class ImportManagerBean implements Serializable {
 
     @Inject
-    private ObjectImportService importService;
+    private ImportJobService importJobService;
     @Inject
     private UserRepository userRepository;
     @Inject
@@ -37,27 +42,36 @@ public class ImportManagerBean implements Serializable {
     private ImportOperationRepository historyRepository;
     @Inject
     private MinioService minioService;
+    @Inject
+    private CacheStatisticsService cacheStatisticsService;
 
     private String username;
     private UploadedFile uploadedFile;
     private List<ImportOperation> importHistory;
     private boolean isAdmin = false;
     private boolean cacheLogEnabled = true; // Для чекбокса
+    private boolean chunked = false; // Режим импорта CHUNKED
+    private ImportDecoder decoder = ImportDecoder.OPENCSV; // Декодер CSV для нового импорта
+    private ImportConflictPolicy conflictPolicy = ImportConflictPolicy.FAIL; // Конфликты (name, type)
 
     @PostConstruct
     public void init() {
         userService.setupTestUsers();
-        this.cacheLogEnabled = CacheLoggingInterceptor.enabled;
+        this.cacheLogEnabled = CacheStatistics.enabled;
     }
 
-    // Метод для переключения логов кэша
+    // Метод для переключения сбора статистики кэша
     public void toggleCacheLog() {
-        CacheLoggingInterceptor.enabled = this.cacheLogEnabled;
+        CacheStatistics.enabled = this.cacheLogEnabled;
         String status = this.cacheLogEnabled ? "Enabled" : "Disabled";
         FacesContext.getCurrentInstance().addMessage(null,
                 new FacesMessage(FacesMessage.SEVERITY_INFO, "Cache Log", "L2 Cache Statistics " + status));
     }
 
+    public List<CacheStatisticsDTO> getCacheStatistics() {
+        return cacheStatisticsService.getStatistics();
+    }
+
     // Метод для скачивания файла
     public StreamedContent downloadFile(ImportOperation operation) {
         if (operation.getMinioObjectName() == null) {
@@ -66,11 +80,13 @@ public class ImportManagerBean implements Serializable {
             return null;
         }
         try {
-            InputStream stream = minioService.downloadFile(operation.getMinioObjectName());
+            // Поток открывается, только когда PrimeFaces начинает писать ответ
+            String objectName = operation.getMinioObjectName();
+            ArchiveCodec codec = ArchiveCodec.orNone(operation.getArchiveCodec());
             return DefaultStreamedContent.builder()
                     .name("import_" + operation.getId() + ".csv")
                     .contentType("text/csv")
-                    .stream(() -> stream)
+                    .stream(() -> minioService.downloadArchive(objectName, codec))
                     .build();
         } catch (Exception e) {
             FacesContext.getCurrentInstance().addMessage(null,
@@ -90,14 +106,17 @@ public class ImportManagerBean implements Serializable {
             User currentUser = userRepository.findByUsername(username)
                     .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
-            // Читаем контент в массив байтов, чтобы передать и в MinIO, и в парсер
-            byte[] content = uploadedFile.getContent();
-
-            // Вызываем метод с 2PC транзакцией
-            importService.performImport(content, currentUser, uploadedFile.getFileName());
+            // Импорт выполняется в фоне (2PC транзакция внутри задачи), здесь только постановка в очередь
+            Long operationId;
+            try (InputStream content = uploadedFile.getInputStream()) {
+                ImportMode mode = chunked ? ImportMode.CHUNKED : ImportMode.ATOMIC;
+                operationId = importJobService.submit(content, currentUser, uploadedFile.getFileName(), mode, decoder,
+                        conflictPolicy);
+            }
 
             FacesContext.getCurrentInstance().addMessage(null,
-                    new FacesMessage(FacesMessage.SEVERITY_INFO, "Success", "Import completed successfully."));
+                    new FacesMessage(FacesMessage.SEVERITY_INFO, "Queued",
+                            "Импорт #" + operationId + " поставлен в очередь. Статус — в истории импорта."));
         } catch (Exception e) {
             String msg = getRootErrorMessage(e);
             FacesContext.getCurrentInstance().addMessage(null,
@@ -107,6 +126,24 @@ public class ImportManagerBean implements Serializable {
         }
     }
 
+    public boolean canResume(ImportOperation operation) {
+        return importJobService.isResumable(operation);
+    }
+
+    public void resume(ImportOperation operation) {
+        try {
+            importJobService.resume(operation);
+            FacesContext.getCurrentInstance().addMessage(null,
+                    new FacesMessage(FacesMessage.SEVERITY_INFO, "Queued",
+                            "Импорт #" + operation.getId() + " продолжится со строки " + (operation.getLastCommittedRow() + 1) + "."));
+        } catch (RuntimeException e) {
+            FacesContext.getCurrentInstance().addMessage(null,
+                    new FacesMessage(FacesMessage.SEVERITY_ERROR, "Import Error", e.getMessage()));
+        } finally {
+            loadHistory();
+        }
+    }
+
     // ... loadHistory и getRootErrorMessage (оставить как были) ...
     public void loadHistory() {
         if (username == null || username.trim().isEmpty()) return;
@@ -132,4 +169,13 @@ public class ImportManagerBean implements Serializable {
     public boolean isAdmin() { return isAdmin; }
     public boolean isCacheLogEnabled() { return cacheLogEnabled; }
     public void setCacheLogEnabled(boolean cacheLogEnabled) { this.cacheLogEnabled = cacheLogEnabled; }
+    public boolean isChunked() { return chunked; }
+    public void setChunked(boolean chunked) { this.chunked = chunked; }
+    public ImportDecoder getDecoder() { return decoder; }
+    public void setDecoder(ImportDecoder decoder) { this.decoder = decoder; }
+    public ImportDecoder[] getDecoders() { return ImportDecoder.values(); }
+
+    public ImportConflictPolicy getConflictPolicy() { return conflictPolicy; }
+    public void setConflictPolicy(ImportConflictPolicy conflictPolicy) { this.conflictPolicy = conflictPolicy; }
+    public ImportConflictPolicy[] getConflictPolicies() { return ImportConflictPolicy.values(); }
 }
\ No newline at end of file
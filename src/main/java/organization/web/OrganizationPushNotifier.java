@@ -0,0 +1,39 @@
+package organization.web;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.faces.push.Push;
+import jakarta.faces.push.PushContext;
+import jakarta.inject.Inject;
+import organization.event.OrganizationChangedEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Пересылает события об изменении организаций во все открытые вкладки через f:websocket
+ * (канал "organizations"). Клиент получает только тип изменения и ID строк.
+ */
+@ApplicationScoped
+public class OrganizationPushNotifier {
+
+    private static final Logger LOG = Logger.getLogger(OrganizationPushNotifier.class.getName());
+
+    @Inject
+    @Push(channel = "organizations")
+    private PushContext push;
+
+    public void onChange(@Observes OrganizationChangedEvent event) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("type", event.getType().name());
+        message.put("ids", event.getIds());
+        try {
+            push.send(message);
+        } catch (Exception e) {
+            // Уведомление не должно ломать уже закоммиченную операцию
+            LOG.log(Level.WARNING, "[PUSH] Failed to notify clients", e);
+        }
+    }
+}
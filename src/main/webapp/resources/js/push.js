@@ -0,0 +1,12 @@
+// Обработчик f:websocket канала "organizations": любое изменение перезагружает таблицу (одна страница).
+// Правка строки может переместить ее на текущую страницу или с нее при активной сортировке и фильтре,
+// поэтому события не фильтруются по видимым ID. Частые события склеиваются в одно обновление.
+var organizationsRefreshTimer = null;
+
+function onOrganizationsChanged(message) {
+    if (organizationsRefreshTimer) return;
+    organizationsRefreshTimer = setTimeout(function () {
+        organizationsRefreshTimer = null;
+        refreshOrganizations();
+    }, 300);
+}
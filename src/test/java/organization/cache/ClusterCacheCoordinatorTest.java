@@ -0,0 +1,151 @@
+package organization.cache;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import organization.dto.CsvImportModel;
+import organization.entity.Organization;
+import organization.entity.OrganizationType;
+import organization.event.OrganizationChangedEvent;
+import organization.mapper.OrganizationMapper;
+
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Два узла в одной JVM: у каждого свой L2-кэш EclipseLink (отдельная сессия), свой кэш запросов
+ * и свой менеджер Infinispan; БД общая (H2 в памяти), канал инвалидации — JGroups через loopback.
+ * Изменение организации на узле A должно вытеснить ее из кэша узла B и сбросить его кэш запросов.
+ */
+class ClusterCacheCoordinatorTest {
+
+    private static final String DB_URL = "jdbc:h2:mem:cluster;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    private static EntityManagerFactory emfA;
+    private static EntityManagerFactory emfB;
+    private static QueryResultCache queryCacheB;
+    private static ClusterCacheCoordinator nodeA;
+    private static ClusterCacheCoordinator nodeB;
+
+    @BeforeAll
+    static void setUp() throws InterruptedException {
+        System.setProperty("organization.cache.cluster.jgroups", "jgroups-loopback.xml");
+        System.setProperty("organization.cache.cluster.name", "organization-l2-test");
+
+        emfA = emf("nodeA", "drop-and-create");
+        emfB = emf("nodeB", "none");
+        queryCacheB = new QueryResultCache();
+        nodeA = new ClusterCacheCoordinator(emfA, new QueryResultCache());
+        nodeB = new ClusterCacheCoordinator(emfB, queryCacheB);
+        nodeA.join("nodeA");
+        nodeB.join("nodeB");
+        await(() -> nodeA.getMembersCount() == 2 && nodeB.getMembersCount() == 2, "nodes did not form a cluster");
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (nodeB != null) nodeB.shutdown();
+        if (nodeA != null) nodeA.shutdown();
+        if (emfB != null) emfB.close();
+        if (emfA != null) emfA.close();
+        System.clearProperty("organization.cache.cluster.jgroups");
+        System.clearProperty("organization.cache.cluster.name");
+    }
+
+    @Test
+    void writeOnNodeAEvictsOrganizationAndQueryCacheOnNodeB() throws InterruptedException {
+        Long id = inTransaction(emfA, em -> {
+            Organization organization = organization();
+            em.persist(organization);
+            em.flush();
+            return organization.getId();
+        });
+
+        // Узел B читает организацию в свой L2-кэш и кэширует агрегат
+        inTransaction(emfB, em -> em.find(Organization.class, id));
+        assertTrue(emfB.getCache().contains(Organization.class, id));
+        queryCacheB.get("count", List.of(), () -> 1L);
+        assertEquals(1L, (long) queryCacheB.get("count", List.of(), () -> 2L));
+
+        // Изменение на узле A: commit, затем событие, как в OrganizationService
+        inTransaction(emfA, em -> {
+            em.find(Organization.class, id).setFullName("Renamed on A");
+            return null;
+        });
+        nodeA.onChange(new OrganizationChangedEvent(OrganizationChangedEvent.Type.UPDATED, List.of(id)));
+
+        await(() -> !emfB.getCache().contains(Organization.class, id), "organization was not evicted on node B");
+        assertEquals(2L, (long) queryCacheB.get("count", List.of(), () -> 2L));
+        assertEquals("Renamed on A", inTransaction(emfB, em -> em.find(Organization.class, id).getFullName()));
+    }
+
+    private static EntityManagerFactory emf(String node, String schemaAction) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("jakarta.persistence.jdbc.driver", "org.h2.Driver");
+        properties.put("jakarta.persistence.jdbc.url", DB_URL);
+        properties.put("jakarta.persistence.jdbc.user", "sa");
+        properties.put("jakarta.persistence.jdbc.password", "");
+        properties.put("eclipselink.target-database", "H2");
+        properties.put("jakarta.persistence.schema-generation.database.action", schemaAction);
+        // Своя сессия — свой L2-кэш, как на отдельном узле
+        properties.put("eclipselink.session-name", node);
+        properties.put("eclipselink.logging.level", "OFF");
+        properties.put("eclipselink.logging.level.sql", "OFF");
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory("organizationPU", properties);
+        // Разворачиваем PU сразу: узел B не должен создавать схему раньше узла A
+        emf.createEntityManager().close();
+        return emf;
+    }
+
+    private static Organization organization() {
+        CsvImportModel model = new CsvImportModel();
+        model.setName("Cluster org");
+        model.setFullName("Cluster organization");
+        model.setType(OrganizationType.COMMERCIAL);
+        model.setAnnualTurnover(1000.0);
+        model.setEmployeesCount(10);
+        model.setRating(2.5f);
+        model.setX(1.0);
+        model.setY(1);
+        model.setOfficialStreet("Main street");
+        model.setOfficialZipCode("100000");
+        model.setPostalStreet("Postal street");
+        model.setPostalZipCode("200000");
+        Organization organization = OrganizationMapper.toOrganization(model);
+        organization.setCreationDate(ZonedDateTime.now());
+        return organization;
+    }
+
+    private static <T> T inTransaction(EntityManagerFactory emf, Function<EntityManager, T> work) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            T result = work.apply(em);
+            em.getTransaction().commit();
+            return result;
+        } finally {
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            em.close();
+        }
+    }
+
+    // Инвалидация рассылается асинхронно (REPL_ASYNC)
+    private static void await(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, message);
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package organization.csv;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import organization.dto.CsvImportModel;
+import organization.entity.ImportDecoder;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * FastCsvModelDecoder должен разбирать записи так же, как OpenCsvModelDecoder: выбор ImportDecoder.FAST
+ * не должен менять импортируемые данные. Каждая запись декодируется обоими декодерами,
+ * модели сравниваются целиком; записи с ошибками должны отклоняться обоими.
+ */
+class CsvModelDecoderParityTest {
+
+    private static final String HEADER = String.join(",", CsvImportModel.COLUMNS);
+
+    // name, fullName, type, annualTurnover, employeesCount, rating, x, y,
+    // officialAddress.street, officialAddress.zipCode, postalAddress.street, postalAddress.zipCode
+    static Stream<String> validRecords() {
+        return Stream.of(
+                "Org 1,Organization 1,COMMERCIAL,1000.25,10,2.5,0.1,5,Main street 1,100001,Postal street 1,200001",
+                // Запятые внутри кавычек
+                "\"Org, 2\",\"Organization, Inc. 2\",GOVERNMENT,1000,20,3.5,1.5,6,"
+                        + "\"Main street, 2\",100002,\"Postal, street 2\",200002",
+                // Удвоенные кавычки
+                "\"Org \"\"Three\"\"\",\"The \"\"Best\"\" Org\",TRUST,1,3,1,0,7,"
+                        + "\"\"\"Quoted\"\" street\",100003,Postal street 3,200003",
+                // Пробелы перед кавычкой пропускаются, текст без кавычек сохраняется с пробелами
+                "Org 4, \"Organization, 4\",TRUST,4,4,4,4,4, Main street 4,100004,  Postal street 4,200004",
+                // Пустые необязательные поля: строки остаются пустыми, числа — null
+                "Org 5,,COMMERCIAL,,,,0,0,Main street 5,,Postal street 5,",
+                // Пустые из одних пробелов
+                "Org 6,   ,COMMERCIAL,  , ,   ,0,0,Main street 6,  ,Postal street 6, ",
+                "Org 7,\"\",GOVERNMENT,\"\",\"\",\"\",0,0,Main street 7,\"\",Postal street 7,\"\"",
+                // Тип без учета регистра
+                "Org 8,Organization 8,trust,8,8,8,8,8,Main street 8,100008,Postal street 8,200008",
+                // Экспонента, знак, отрицательные числа
+                "Org 9,Organization 9,COMMERCIAL,1.5E3,+42,2e-1,-3.25e2,-460,Main street 9,100009,Postal street 9,200009",
+                // Длинная мантисса и граничные значения (мимо быстрого пути)
+                "Org 10,Organization 10,COMMERCIAL,123456789.123456789,2147483647,1234567.5,"
+                        + "0.30000000000000004,-2147483648,Main street 10,100010,Postal street 10,200010",
+                // Десятичные дроби быстрого пути
+                "Org 11,Organization 11,TRUST,0.1,0,0.3,-0.7,1,Main street 11,100011,Postal street 11,200011",
+                "Org 12,Organization 12,TRUST,1.,12,.5,-.25,12,Main street 12,100012,Postal street 12,200012"
+        );
+    }
+
+    static Stream<String> invalidRecords() {
+        return Stream.of(
+                // Неизвестный тип и пустой тип
+                "Org,Organization,PRIVATE,1,1,1,1,1,Main,1,Postal,1",
+                "Org,Organization,  ,1,1,1,1,1,Main,1,Postal,1",
+                // Не числа
+                "Org,Organization,TRUST,12a,1,1,1,1,Main,1,Postal,1",
+                "Org,Organization,TRUST,1,1.5,1,1,1,Main,1,Postal,1",
+                "Org,Organization,TRUST,1,2147483648,1,1,1,Main,1,Postal,1",
+                "Org,Organization,TRUST,1,1,x,1,1,Main,1,Postal,1",
+                "Org,Organization,TRUST,1,1,1,1.2.3,1,Main,1,Postal,1",
+                "Org,Organization,TRUST,1,1,1,-,1,Main,1,Postal,1",
+                // Пустые обязательные поля
+                ",Organization,TRUST,1,1,1,1,1,Main,1,Postal,1",
+                "Org,Organization,TRUST,1,1,1,1, ,Main,1,Postal,1",
+                "Org,Organization,TRUST,1,1,1,1,1,,1,Postal,1",
+                // Число ячеек не совпадает с заголовком
+                "Org,Organization,TRUST,1,1,1,1,1,Main,1,Postal",
+                "Org,Organization,TRUST,1,1,1,1,1,Main,1,Postal,1,extra"
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("validRecords")
+    void fastDecoderProducesSameModel(String record) {
+        assertEquals(decoder(ImportDecoder.OPENCSV).decode(record), decoder(ImportDecoder.FAST).decode(record));
+    }
+
+    @ParameterizedTest
+    @MethodSource("invalidRecords")
+    void bothDecodersRejectInvalidRecord(String record) {
+        assertThrows(IllegalArgumentException.class, () -> decoder(ImportDecoder.OPENCSV).decode(record));
+        assertThrows(IllegalArgumentException.class, () -> decoder(ImportDecoder.FAST).decode(record));
+    }
+
+    private static CsvModelDecoder decoder(ImportDecoder type) {
+        CsvModelDecoder decoder = CsvModelDecoder.create(type);
+        decoder.readHeader(HEADER);
+        return decoder;
+    }
+}
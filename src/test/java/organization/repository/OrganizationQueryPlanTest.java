@@ -0,0 +1,238 @@
+package organization.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.eclipse.persistence.logging.AbstractSessionLog;
+import org.eclipse.persistence.logging.SessionLog;
+import org.eclipse.persistence.logging.SessionLogEntry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.ds.PGSimpleDataSource;
+import organization.config.IdSequenceMigration;
+import organization.config.OrganizationStatisticsMigration;
+import organization.config.SchemaIndexMigration;
+import organization.dto.CsvImportModel;
+import organization.dto.OrganizationPageRequest;
+import organization.entity.Address;
+import organization.entity.Organization;
+import organization.entity.OrganizationType;
+import organization.mapper.OrganizationMapper;
+
+import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Планы специальных запросов {@link OrganizationRepository} на PostgreSQL.
+ * Схема создается как при старте приложения: таблицы — EclipseLink по сущностям, индексы и триггеры — миграциями.
+ * После загрузки данных и ANALYZE запрос репозитория выполняется, его SQL перехватывается из лога EclipseLink
+ * (параметры подставлены литералами) и проверяется через EXPLAIN с настройками планировщика по умолчанию.
+ * Нужна БД: -Dorganization.test.jdbc-url=jdbc:postgresql://localhost:5432/test
+ * (и при необходимости organization.test.jdbc-user / organization.test.jdbc-password), без нее тест пропускается.
+ * Таблицы создаются в отдельной схеме и удаляются после теста.
+ */
+class OrganizationQueryPlanTest {
+
+    private static final String SCHEMA = "organization_plan_test";
+    private static final int ROWS = 10_000;
+
+    private static PGSimpleDataSource dataSource;
+    private static EntityManagerFactory emf;
+    private static EntityManager em;
+    private static OrganizationRepository repository;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        String url = System.getProperty("organization.test.jdbc-url");
+        assumeTrue(url != null && !url.isBlank(), "organization.test.jdbc-url is not set");
+        String user = System.getProperty("organization.test.jdbc-user");
+        String password = System.getProperty("organization.test.jdbc-password");
+        String schemaUrl = url + (url.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA;
+
+        dataSource = new PGSimpleDataSource();
+        dataSource.setUrl(schemaUrl);
+        dataSource.setUser(user);
+        dataSource.setPassword(password);
+        try (Connection connection = dataSource.getConnection();
+             Statement st = connection.createStatement()) {
+            st.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            st.execute("CREATE SCHEMA " + SCHEMA);
+        }
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("jakarta.persistence.jdbc.url", schemaUrl + "&reWriteBatchedInserts=true");
+        properties.put("jakarta.persistence.jdbc.user", user != null ? user : "");
+        properties.put("jakarta.persistence.jdbc.password", password != null ? password : "");
+        properties.put("jakarta.persistence.schema-generation.database.action", "drop-and-create");
+        // Литералы вместо параметров: залогированный SQL можно выполнить под EXPLAIN как есть
+        properties.put("eclipselink.jdbc.bind-parameters", "false");
+        properties.put("eclipselink.logging.logger", SqlCapture.class.getName());
+        properties.put("eclipselink.logging.level", "OFF");
+        properties.put("eclipselink.logging.level.sql", "FINE");
+        emf = Persistence.createEntityManagerFactory("organizationPU", properties);
+
+        // Тот же порядок, что в EntityManagerProducer
+        emf.createEntityManager().close();
+        IdSequenceMigration.migrate(dataSource);
+        SchemaIndexMigration.migrate(dataSource);
+        OrganizationStatisticsMigration.migrate(dataSource);
+
+        em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 0; i < ROWS; i++) {
+            em.persist(organization(i));
+            if (i % 1000 == 999) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.getTransaction().commit();
+        em.clear();
+        try (Connection connection = dataSource.getConnection();
+             Statement st = connection.createStatement()) {
+            st.execute("ANALYZE");
+        }
+
+        repository = new OrganizationRepository();
+        // В приложении EntityManager внедряет CDI
+        Field field = OrganizationRepository.class.getDeclaredField("em");
+        field.setAccessible(true);
+        field.set(repository, em);
+    }
+
+    @AfterAll
+    static void tearDown() throws SQLException {
+        if (em != null) em.close();
+        if (emf != null) emf.close();
+        if (dataSource == null) return;
+        try (Connection connection = dataSource.getConnection();
+             Statement st = connection.createStatement()) {
+            st.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+    }
+
+    @BeforeEach
+    void clearCaptured() {
+        em.clear();
+        SqlCapture.clear();
+    }
+
+    @Test
+    void maxFullNameReadsFullNameIndexBackward() throws SQLException {
+        assertNotNull(repository.getOrganizationWithMaxFullName());
+        String plan = explain(SqlCapture.firstSelect());
+        assertTrue(plan.contains("Index Scan Backward using " + SchemaIndexMigration.FULLNAME_INDEX), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    @Test
+    void countByPostalAddressUsesStreetZipIndex() throws SQLException {
+        Address address = new Address();
+        address.setStreet("Postal street 42");
+        address.setZipCode("200042");
+        repository.countByPostalAddress(address);
+        String plan = explain(SqlCapture.firstSelect());
+        assertTrue(plan.contains(" " + SchemaIndexMigration.STREET_ZIP_INDEX), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    @Test
+    void countByPostalStreetUsesStreetZipIndexPrefix() throws SQLException {
+        Address address = new Address();
+        address.setStreet("Postal street 42");
+        repository.countByPostalAddress(address);
+        String plan = explain(SqlCapture.firstSelect());
+        assertTrue(plan.contains(" " + SchemaIndexMigration.STREET_ZIP_INDEX), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    @Test
+    void filteredPageUsesNameTypeIndex() throws SQLException {
+        repository.findPage(OrganizationPageRequest.builder()
+                .page(0).size(20).sortField("fullName")
+                .filters(Map.of("name", "Org 42",
+                        "type", OrganizationType.values()[42 % OrganizationType.values().length].name()))
+                .build());
+        String plan = explain(SqlCapture.firstSelect());
+        assertTrue(plan.contains(" " + SchemaIndexMigration.NAME_TYPE_INDEX), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    private static Organization organization(int i) {
+        CsvImportModel model = new CsvImportModel();
+        model.setName("Org " + i);
+        model.setFullName("Organization, Inc. " + i);
+        model.setType(OrganizationType.values()[i % OrganizationType.values().length]);
+        model.setAnnualTurnover(1000 + i * 0.25);
+        model.setEmployeesCount(10 + i % 500);
+        model.setRating(1.5f + i % 10);
+        model.setX(i * 0.1);
+        model.setY(i % 400);
+        model.setOfficialStreet("Main street " + i);
+        model.setOfficialZipCode(String.valueOf(100000 + i));
+        model.setPostalStreet("Postal street " + i);
+        model.setPostalZipCode(String.valueOf(200000 + i));
+        Organization organization = OrganizationMapper.toOrganization(model);
+        organization.setCreationDate(ZonedDateTime.now());
+        return organization;
+    }
+
+    private static String explain(String sql) throws SQLException {
+        assertNotNull(sql, "repository query was not captured");
+        try (Connection connection = dataSource.getConnection();
+             Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("EXPLAIN " + sql)) {
+            StringBuilder plan = new StringBuilder(sql).append('\n');
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+            return plan.toString();
+        }
+    }
+
+    /**
+     * Лог EclipseLink, запоминающий выполненный SQL. Создается EclipseLink по имени класса
+     * (eclipselink.logging.logger), поэтому public и с конструктором без параметров.
+     */
+    public static class SqlCapture extends AbstractSessionLog {
+
+        private static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+        static void clear() {
+            STATEMENTS.clear();
+        }
+
+        // Первый SELECT после clear() — сам запрос репозитория; следом могут идти дочитывания связей
+        static String firstSelect() {
+            synchronized (STATEMENTS) {
+                for (String sql : STATEMENTS) {
+                    if (sql.startsWith("SELECT") && !sql.contains("nextval")) return sql;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void log(SessionLogEntry entry) {
+            if (SessionLog.SQL.equals(entry.getNameSpace()) && entry.getMessage() != null) {
+                STATEMENTS.add(entry.getMessage().trim());
+            }
+        }
+    }
+}